@@ -1,5 +1,6 @@
 package com.example.wondertrackxd;
 
+import com.example.wondertrackxd.controller.data.SalesLog;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -39,6 +40,9 @@ public class MainApp extends Application {
             Font interSemiBold = Font.loadFont(getClass().getResourceAsStream("/fonts/Inter-SemiBold.ttf"), 10);
             logger.info("✅ Inter fonts loaded successfully");
 
+            // Drop tombstoned sales before any view reads or watches sales.txt
+            SalesLog.getInstance().compact();
+
             // Load the login screen as the initial view
             logger.info("🔐 Loading Login screen...");
             Parent root = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/fxml/Login.fxml")));
@@ -0,0 +1,165 @@
+package com.example.wondertrackxd.controller.analytics;
+
+import com.example.wondertrackxd.controller.data.DailyRollup;
+import com.example.wondertrackxd.controller.data.ProductCatalog;
+import com.example.wondertrackxd.controller.data.SalesSnapshot;
+import com.example.wondertrackxd.controller.model.OrderStatus;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the Analytics page figures for one period, off the JavaFX thread
+ *
+ * Only customer retention is computed in a fork-join pass. Order and revenue totals, units and
+ * revenue per flavor and the daily and monthly revenue series add up across days, so they are read
+ * from the daily rollups in O(days) while the fork-join pass runs; per-chunk partials of them
+ * would rescan every sale row for figures the rollups already hold. Sale counts per customer do
+ * not add up across days, so the sales snapshot rows are split into chunks that are counted in
+ * parallel on the common ForkJoinPool and merged in the join. The caller only gets the finished
+ * figures.
+ */
+public final class AnalyticsAggregator {
+
+    // Rows a task counts itself instead of splitting further
+    private static final int CHUNK_ROWS = 16_384;
+
+    // Chart labels for sale dates, e.g. "Jun 24" and "Jun 2025"
+    private static final DateTimeFormatter DAY_LABEL = DateTimeFormatter.ofPattern("MMM d", Locale.ENGLISH);
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+
+    /**
+     * Figures of one period, ready to display
+     * @param totalOrders Orders in all statuses, by order date
+     * @param completedOrders Completed orders, by order date
+     * @param totalRevenue Revenue in pesos of the period's sales
+     * @param saleCount Number of sales in the period
+     * @param previousPeriodRevenue Revenue in pesos of the period of the same length just before
+     * @param totalCustomers Customers (contact numbers) with a sale in the period
+     * @param returningCustomers Customers with more than one sale in the period
+     * @param unitsByFlavor Units sold per flavor
+     * @param revenueByFlavor Line revenue in pesos per flavor, at the unit prices the sales recorded
+     * @param dailyRevenue Revenue per day label, oldest first
+     * @param monthlyRevenue Revenue per month label, oldest first
+     */
+    public record Result(int totalOrders, long completedOrders, double totalRevenue, long saleCount,
+                         double previousPeriodRevenue, long totalCustomers, long returningCustomers,
+                         Map<String, Integer> unitsByFlavor, Map<String, Double> revenueByFlavor,
+                         Map<String, Double> dailyRevenue, Map<String, Double> monthlyRevenue) {
+    }
+
+    private AnalyticsAggregator() {
+    }
+
+    /**
+     * Aggregate one period
+     * @param snapshot Sales snapshot, for per-customer counts; null counts no customers
+     * @param salesRollup Daily sales rollup
+     * @param orderRollup Daily order rollup
+     * @param start First day of the period
+     * @param end Last day of the period
+     * @param previousStart First day of the previous period
+     * @param previousEnd Last day of the previous period
+     * @return The period's figures
+     */
+    public static Result aggregate(SalesSnapshot snapshot, DailyRollup salesRollup, DailyRollup orderRollup,
+                                   LocalDate start, LocalDate end, LocalDate previousStart, LocalDate previousEnd) {
+        // Customer counts run on the pool while the rollup queries run here
+        CustomerCounts counting = null;
+        if (snapshot != null) {
+            counting = new CustomerCounts(snapshot, SalesSnapshot.startOfDayMinute(start),
+                SalesSnapshot.startOfDayMinute(end.plusDays(1)), 0, snapshot.getRowCount());
+            ForkJoinPool.commonPool().execute(counting);
+        }
+
+        int totalOrders = (int) orderRollup.getOrderCount(start, end);
+        long completedOrders = orderRollup.getOrderCount(start, end, OrderStatus.COMPLETED);
+        double totalRevenue = salesRollup.getRevenueCentavos(start, end) / 100.0;
+        long saleCount = salesRollup.getOrderCount(start, end);
+        double previousPeriodRevenue = salesRollup.getRevenueCentavos(previousStart, previousEnd) / 100.0;
+
+        ProductCatalog catalog = ProductCatalog.getInstance();
+        DailyRollup.Totals period = salesRollup.sum(start, end);
+        Map<String, Integer> unitsByFlavor = new HashMap<>();
+        Map<String, Double> revenueByFlavor = new HashMap<>();
+        for (int productId = 0; productId < period.getProductLimit(); productId++) {
+            long units = period.getUnits(productId);
+            if (units > 0) {
+                unitsByFlavor.put(catalog.nameOf(productId), (int) units);
+                revenueByFlavor.put(catalog.nameOf(productId), period.getProductRevenueCentavos(productId) / 100.0);
+            }
+        }
+
+        Map<String, Double> dailyRevenue = new LinkedHashMap<>();
+        Map<String, Double> monthlyRevenue = new LinkedHashMap<>();
+        for (Map.Entry<LocalDate, DailyRollup.Totals> day : salesRollup.daily(start, end).entrySet()) {
+            double revenue = day.getValue().getRevenueCentavos() / 100.0;
+            dailyRevenue.merge(day.getKey().format(DAY_LABEL), revenue, Double::sum);
+            monthlyRevenue.merge(day.getKey().format(MONTH_LABEL), revenue, Double::sum);
+        }
+
+        // Customers without a contact number are left out
+        int[] salesPerCustomer = counting != null ? counting.join() : new int[0];
+        long customers = 0;
+        long returning = 0;
+        for (int contactId = 0; contactId < salesPerCustomer.length; contactId++) {
+            if (salesPerCustomer[contactId] == 0 || snapshot.getContactNumber(contactId).trim().isEmpty()) continue;
+            customers++;
+            if (salesPerCustomer[contactId] > 1) returning++;
+        }
+
+        return new Result(totalOrders, completedOrders, totalRevenue, saleCount, previousPeriodRevenue,
+            customers, returning, unitsByFlavor, revenueByFlavor, dailyRevenue, monthlyRevenue);
+    }
+
+    /**
+     * Sales per contact ID among snapshot rows [start, end) dated within [fromMinute, toMinute)
+     */
+    private static final class CustomerCounts extends RecursiveTask<int[]> {
+
+        private final SalesSnapshot snapshot;
+        private final long fromMinute;
+        private final long toMinute;
+        private final int start;
+        private final int end;
+
+        CustomerCounts(SalesSnapshot snapshot, long fromMinute, long toMinute, int start, int end) {
+            this.snapshot = snapshot;
+            this.fromMinute = fromMinute;
+            this.toMinute = toMinute;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (end - start <= CHUNK_ROWS) {
+                int[] counts = new int[snapshot.getContactCount()];
+                for (int row = start; row < end; row++) {
+                    long minute = snapshot.getEpochMinute(row);
+                    if (minute >= fromMinute && minute < toMinute) {
+                        counts[snapshot.getContactId(row)]++;
+                    }
+                }
+                return counts;
+            }
+
+            int middle = (start + end) >>> 1;
+            CustomerCounts left = new CustomerCounts(snapshot, fromMinute, toMinute, start, middle);
+            CustomerCounts right = new CustomerCounts(snapshot, fromMinute, toMinute, middle, end);
+            left.fork();
+            int[] counts = right.compute();
+            int[] leftCounts = left.join();
+            for (int contactId = 0; contactId < counts.length; contactId++) {
+                counts[contactId] += leftCounts[contactId];
+            }
+            return counts;
+        }
+    }
+}
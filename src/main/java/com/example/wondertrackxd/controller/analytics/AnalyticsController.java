@@ -1,7 +1,9 @@
 package com.example.wondertrackxd.controller.analytics;
 
-import com.example.wondertrackxd.controller.model.RecentOrder;
-import com.example.wondertrackxd.controller.model.SalesRecord;
+import com.example.wondertrackxd.controller.data.DailyRollup;
+import com.example.wondertrackxd.controller.data.FileChangeNotifier;
+import com.example.wondertrackxd.controller.data.OrderRepository;
+import com.example.wondertrackxd.controller.data.SalesSnapshot;
 import com.example.wondertrackxd.controller.header.HeaderController;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -19,13 +21,11 @@ import java.util.ResourceBundle;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Controller for the Analytics page
@@ -52,21 +52,33 @@ public class AnalyticsController implements Initializable {
     @FXML private BarChart<String, Number> monthlyRevenueChart;
 
     // Data Management 
-    private List<SalesRecord> allSales = new ArrayList<>();
-    private List<RecentOrder> allOrders = new ArrayList<>();
+    private SalesSnapshot salesSnapshot;
+    
+    // Daily totals of sales (by sale date) and orders (by order date); periods sum their day cells
+    private DailyRollup salesRollup;
+    private DailyRollup orderRollup;
     private DataService dataService = DataService.getInstance();
     private int currentPage = 1;
     private final int itemsPerPage = 15;
     
-    private static final String ORDERS_FILE = "src/main/resources/txtFiles/orders.txt";
-    private static final String SALES_FILE = "src/main/resources/txtFiles/sales.txt";
-    
     // Current time period filter
     private String currentTimePeriod = "Last 30 Days";
+    
+    // Aggregation runs on the ForkJoinPool; only the result of the latest request is displayed
+    private final AtomicLong aggregationGeneration = new AtomicLong();
+    
+    // Order repository and sales versions, read before the data they describe is loaded
+    private record DataVersions(long orders, long sales) {
+    }
+    
+    // Results by time period, tagged with the data versions and end date they were computed for
+    private record CachedResult(DataVersions versions, LocalDate periodEnd, AnalyticsAggregator.Result result) {
+    }
+    private final Map<String, CachedResult> resultCache = new ConcurrentHashMap<>();
 
     /**
      * Initialize the Analytics controller
-     * Load real data from orders.txt and populate analytics
+     * Load real data through DataService and populate analytics
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -75,16 +87,21 @@ public class AnalyticsController implements Initializable {
         try {
             // Register this controller with HeaderController for real-time updates
             HeaderController.setAnalyticsController(this);
-            
-            // Load data using professional DataService
-            if (dataService.loadAllData()) {
-                allOrders = dataService.getAllOrders();
-                allSales = dataService.getAllSales();
+            FileChangeNotifier.getInstance().subscribe("analytics-view", changed -> {
+                OrderRepository.getInstance().refresh();
+                Platform.runLater(this::refreshAnalytics);
+            }, FileChangeNotifier.ORDERS_FILE, FileChangeNotifier.ORDERS_JOURNAL_FILE, FileChangeNotifier.SALES_FILE);
+            
+            // Load orders from the shared repository and map the columnar sales snapshot
+            DataVersions versions = readDataVersions();
+            salesSnapshot = dataService.getSalesSnapshot();
+            if (dataService.loadOrderData() && salesSnapshot != null) {
+                loadRollups();
                 
                 // Calculate and display comprehensive analytics
-                calculateAndDisplayAnalytics();
+                calculateAndDisplayAnalytics(versions);
                 
-                logger.info("✅ Analytics initialization completed with " + allOrders.size() + " orders and " + allSales.size() + " sales");
+                logger.info("✅ Analytics initialization completed with " + salesSnapshot.getRowCount() + " sales");
             } else {
                 logger.warning("⚠️ Some data files could not be loaded");
                 showErrorState();
@@ -97,148 +114,55 @@ public class AnalyticsController implements Initializable {
     }
 
     /**
-     * Load order data from orders.txt file
-     * Orders include all statuses: Pending, Completed, Cancelled, In-Progress
+     * Calculate and display all analytics from real order data
+     * The period is aggregated on the ForkJoinPool; the JavaFX thread only receives the finished
+     * figures, and a result is dropped if a newer refresh was requested in the meantime.
+     * Results are cached per time period and reused until an order or sale changes (or the day ends).
+     * @param versions Data versions read before the current snapshot and rollups were loaded
      */
-    private void loadOrderData() {
-        logger.info("📂 Loading order data from orders.txt...");
+    private void calculateAndDisplayAnalytics(DataVersions versions) {
+        long generation = aggregationGeneration.incrementAndGet();
+        String timePeriod = currentTimePeriod;
+        LocalDate[] currentPeriod = getDateRangeForPeriod(timePeriod);
         
-        try {
-            if (Files.exists(Paths.get(ORDERS_FILE))) {
-                List<String> lines = Files.readAllLines(Paths.get(ORDERS_FILE));
-                
-                allOrders = lines.stream()
-                    .filter(line -> !line.trim().isEmpty())
-                    .filter(line -> !line.trim().startsWith("#"))
-                    .map(this::parseOrderLine)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-                
-                logger.info("✅ Loaded " + allOrders.size() + " orders successfully");
-            } else {
-                logger.warning("⚠️ Orders file not found: " + ORDERS_FILE);
-            }
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "❌ Error loading order data", e);
+        CachedResult cached = resultCache.get(timePeriod);
+        if (cached != null && cached.versions().equals(versions) && cached.periodEnd().equals(currentPeriod[1])) {
+            logger.info("⚡ Using cached analytics for " + timePeriod);
+            displayResult(generation, cached.result());
+            return;
         }
-    }
-
-    /**
-     * Load sales data from sales.txt file
-     * Sales contain only completed transactions for revenue analytics
-     */
-    private void loadSalesData() {
-        logger.info("💰 Loading sales data from sales.txt...");
         
-        try {
-            if (Files.exists(Paths.get(SALES_FILE))) {
-                List<String> lines = Files.readAllLines(Paths.get(SALES_FILE));
-                
-                allSales = lines.stream()
-                    .filter(line -> !line.trim().isEmpty())
-                    .filter(line -> !line.trim().startsWith("#"))
-                    .map(this::parseSalesLine)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-                
-                logger.info("✅ Loaded " + allSales.size() + " sales records successfully");
-            } else {
-                logger.warning("⚠️ Sales file not found: " + SALES_FILE);
-            }
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "❌ Error loading sales data", e);
-        }
-    }
-
-    /**
-     * Parse order line from CSV format to RecentOrder object
-     */
-    private RecentOrder parseOrderLine(String line) {
-        try {
-            List<String> tokens = new ArrayList<>();
-            StringBuilder currentToken = new StringBuilder();
-            boolean inQuotes = false;
-            
-            for (char c : line.toCharArray()) {
-                if (c == '"') {
-                    inQuotes = !inQuotes;
-                } else if (c == ',' && !inQuotes) {
-                    tokens.add(currentToken.toString().trim());
-                    currentToken = new StringBuilder();
-                } else {
-                    currentToken.append(c);
-                }
-            }
-            tokens.add(currentToken.toString().trim());
-            
-            if (tokens.size() >= 11) {
-                return new RecentOrder(
-                    tokens.get(0).trim(), tokens.get(1).trim(), tokens.get(2).trim(), 
-                    tokens.get(3).replace("\"", "").trim(), tokens.get(4).trim(), tokens.get(5).trim(), 
-                    tokens.get(6).trim(), tokens.get(7).replace("\"", "").trim(), tokens.get(8).trim(),
-                    tokens.get(9).replace("\"", "").trim(), tokens.get(10).replace("\"", "").trim()
-                );
-            }
-            return null;
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error parsing order line: " + line, e);
-            return null;
-        }
-    }
-
-    /**
-     * Parse sales line from CSV format to SalesRecord object
-     */
-    private SalesRecord parseSalesLine(String line) {
-        try {
-            List<String> tokens = new ArrayList<>();
-            StringBuilder currentToken = new StringBuilder();
-            boolean inQuotes = false;
-            
-            for (char c : line.toCharArray()) {
-                if (c == '"') {
-                    inQuotes = !inQuotes;
-                } else if (c == ',' && !inQuotes) {
-                    tokens.add(currentToken.toString().trim());
-                    currentToken = new StringBuilder();
-                } else {
-                    currentToken.append(c);
-                }
-            }
-            tokens.add(currentToken.toString().trim());
-            
-            if (tokens.size() >= 11) {
-                return new SalesRecord(
-                    tokens.get(0).trim(),  // Sale ID
-                    tokens.get(1).trim(),  // Order ID
-                    tokens.get(2).trim(),  // Customer Name
-                    tokens.get(3).trim(),  // Contact Number
-                    tokens.get(4).replace("\"", "").trim(),  // Items Sold
-                    tokens.get(5).trim(),  // Total Items
-                    tokens.get(6).trim(),  // Sale Amount
-                    tokens.get(7).trim(),  // Payment Method
-                    tokens.get(8).replace("\"", "").trim(),  // Sale Date/Time
-                    tokens.get(9).replace("\"", "").trim(),  // Payment Reference
-                    tokens.get(10).trim()  // Cash Received
-                );
+        logger.info("📊 Calculating analytics...");
+        
+        SalesSnapshot snapshot = salesSnapshot;
+        DailyRollup sales = salesRollup;
+        DailyRollup orders = orderRollup;
+        LocalDate[] previousPeriod = getPreviousPeriod(currentPeriod[0], currentPeriod[1]);
+        
+        ForkJoinPool.commonPool().execute(() -> {
+            try {
+                AnalyticsAggregator.Result result = AnalyticsAggregator.aggregate(snapshot, sales, orders,
+                    currentPeriod[0], currentPeriod[1], previousPeriod[0], previousPeriod[1]);
+                resultCache.put(timePeriod, new CachedResult(versions, currentPeriod[1], result));
+                displayResult(generation, result);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "❌ Error aggregating analytics", e);
+                showErrorState();
             }
-            return null;
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error parsing sales line: " + line, e);
-            return null;
-        }
+        });
     }
 
     /**
-     * Calculate and display all analytics from real order data
+     * Show aggregated figures on the JavaFX thread unless a newer refresh has been requested
+     * @param generation Generation of the request that produced the result
+     * @param result Figures of the current time period
      */
-    private void calculateAndDisplayAnalytics() {
-        logger.info("📊 Calculating analytics from " + allOrders.size() + " orders...");
-        
+    private void displayResult(long generation, AnalyticsAggregator.Result result) {
         Platform.runLater(() -> {
+            if (aggregationGeneration.get() != generation) return;
             try {
-                updateKPICards();
-                updateCharts();
+                updateKPICards(result);
+                updateCharts(result);
                 logger.info("✅ Analytics updated successfully");
             } catch (Exception e) {
                 logger.log(Level.SEVERE, "❌ Error updating analytics display", e);
@@ -249,82 +173,45 @@ public class AnalyticsController implements Initializable {
     /**
      * Update KPI cards with real calculated values
      * Handles all sales metrics and order management KPIs
+     * @param result Figures of the current time period
      */
-    private void updateKPICards() {
+    private void updateKPICards(AnalyticsAggregator.Result result) {
         logger.info("📊 Updating KPI cards...");
         
         try {
-            // Get filtered data for current time period
-            List<RecentOrder> filteredOrders = getFilteredOrders();
-            List<SalesRecord> filteredSales = getFilteredSales();
-            
-            logger.info("📊 Processing " + filteredOrders.size() + " orders and " + filteredSales.size() + " sales");
+            long saleCount = result.saleCount();
             
             // 1. Total Orders (includes all statuses)
-            int totalOrders = filteredOrders.size();
+            int totalOrders = result.totalOrders();
+            
+            logger.info("📊 Processing " + totalOrders + " orders and " + saleCount + " sales");
             
             // 2. Completion Rate
-            long completedOrders = filteredOrders.stream()
-                .filter(order -> "Completed".equals(order.getStatus()))
-                .count();
+            long completedOrders = result.completedOrders();
             double completionRate = totalOrders > 0 ? (completedOrders * 100.0) / totalOrders : 0.0;
             
             // 3. Total Revenue (only from completed sales)
-            double totalRevenue = filteredSales.stream()
-                .mapToDouble(sale -> {
-                    try {
-                        return Double.parseDouble(sale.getSaleAmount().replace("₱", "").replace(",", "").trim());
-                    } catch (NumberFormatException e) {
-                        logger.warning("⚠️ Invalid sale amount format: " + sale.getSaleAmount());
-                        return 0.0;
-                    }
-                })
-                .sum();
+            double totalRevenue = result.totalRevenue();
             
             // 4. Average Order Value
             double avgOrderValue = completedOrders > 0 ? totalRevenue / completedOrders : 0.0;
             
-            // 5. Customer Retention
-            Map<String, Long> customerFrequency = filteredSales.stream()
-                .filter(sale -> sale.getContactNumber() != null && !sale.getContactNumber().trim().isEmpty())
-                .collect(Collectors.groupingBy(
-                    SalesRecord::getContactNumber,
-                    Collectors.counting()
-                ));
-            
-            long totalCustomers = customerFrequency.size();
-            long returningCustomers = customerFrequency.values().stream()
-                .filter(count -> count > 1)
-                .count();
+            // 5. Customer Retention (customers with more than one sale, ignoring sales without a contact number)
+            long totalCustomers = result.totalCustomers();
+            long returningCustomers = result.returningCustomers();
             
             double customerRetention = totalCustomers > 0 ? (returningCustomers * 100.0) / totalCustomers : 0.0;
             
             // 6. Growth Rate
-            LocalDate[] currentPeriod = getDateRangeForPeriod(currentTimePeriod);
-            LocalDate[] previousPeriod = getPreviousPeriod(currentPeriod[0], currentPeriod[1]);
-            
-            double currentPeriodRevenue = filteredSales.stream()
-                .mapToDouble(sale -> parseAmount(sale.getSaleAmount()))
-                .sum();
+            double currentPeriodRevenue = totalRevenue;
                 
-            double previousPeriodRevenue = allSales.stream()
-                .filter(sale -> isSaleInDateRange(sale, previousPeriod[0], previousPeriod[1]))
-                .mapToDouble(sale -> parseAmount(sale.getSaleAmount()))
-                .sum();
+            double previousPeriodRevenue = result.previousPeriodRevenue();
             
             double growthRate = previousPeriodRevenue > 0 ? 
                 ((currentPeriodRevenue - previousPeriodRevenue) / previousPeriodRevenue) * 100.0 : 0.0;
             
             // 7. Best Selling Item
-            Map<String, Integer> itemSales = new HashMap<>();
-            for (SalesRecord sale : filteredSales) {
-                String[] items = sale.getItemsSold().split(";");
-                for (String item : items) {
-                    String flavorName = extractFlavorName(item.trim());
-                    int quantity = extractQuantity(item.trim());
-                    itemSales.merge(flavorName, quantity, Integer::sum);
-                }
-            }
+            Map<String, Integer> itemSales = result.unitsByFlavor();
             
             String bestSellingItem = itemSales.entrySet().stream()
                 .max(Map.Entry.comparingByValue())
@@ -348,7 +235,7 @@ public class AnalyticsController implements Initializable {
                         totalRevenueLabel.setText(String.format("₱%,.0f", totalRevenue));
                         totalRevenueLabel.setTooltip(new Tooltip(
                             String.format("Total Revenue: ₱%,.2f%nFrom %d completed sales",
-                            totalRevenue, filteredSales.size())
+                            totalRevenue, saleCount)
                         ));
                     }
                     
@@ -432,17 +319,18 @@ public class AnalyticsController implements Initializable {
     /**
      * Update charts with real data
      */
-    private void updateCharts() {
-        updateDailySalesChart();
-        updateRevenueFlavorChart();
-        updateTopFlavorsChart();
-        updateMonthlyRevenueChart();
+    private void updateCharts(AnalyticsAggregator.Result result) {
+        updateDailySalesChart(result.dailyRevenue());
+        updateRevenueFlavorChart(result.revenueByFlavor());
+        updateTopFlavorsChart(result.unitsByFlavor());
+        updateMonthlyRevenueChart(result.monthlyRevenue());
     }
 
     /**
      * Update daily sales trend chart using filtered sales data (professional POS approach)
+     * @param dailySales Revenue per day label
      */
-    private void updateDailySalesChart() {
+    private void updateDailySalesChart(Map<String, Double> dailySales) {
         if (dailySalesChart == null) return;
         
         try {
@@ -455,17 +343,6 @@ public class AnalyticsController implements Initializable {
             yAxis.setTickUnit(1000);
             yAxis.setAutoRanging(false);
             
-            // Get filtered sales for current time period
-            List<SalesRecord> filteredSales = getFilteredSales();
-            
-            // Group sales by date and calculate daily revenue from filtered sales
-            Map<String, Double> dailySales = filteredSales.stream()
-                .collect(Collectors.groupingBy(
-                    sale -> extractDateFromSale(sale),
-                    LinkedHashMap::new,
-                    Collectors.summingDouble(sale -> parseAmount(sale.getSaleAmount()))
-                ));
-            
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Daily Sales");
             
@@ -487,8 +364,9 @@ public class AnalyticsController implements Initializable {
     /**
      * Update the revenue by flavor pie chart
      * Shows revenue distribution across different waffle flavors
+     * @param revenueByFlavor Line revenue per flavor in the current time period, from the sales' unit prices
      */
-    private void updateRevenueFlavorChart() {
+    private void updateRevenueFlavorChart(Map<String, Double> revenueByFlavor) {
         logger.info("🥧 Updating revenue by flavor chart...");
         
         try {
@@ -497,35 +375,6 @@ public class AnalyticsController implements Initializable {
                 return;
             }
 
-            // Get filtered sales based on time period
-            List<SalesRecord> filteredSales = getFilteredSales();
-            
-            // Map to store revenue by flavor
-            Map<String, Double> revenueByFlavor = new HashMap<>();
-            
-            // Process each sale
-            for (SalesRecord sale : filteredSales) {
-                String[] items = sale.getItemsSold().split(";");
-                for (String item : items) {
-                    item = item.trim();
-                    if (!item.isEmpty()) {
-                        int quantity = extractQuantity(item);
-                        String flavorName = extractFlavorName(item);
-                        
-                        // Calculate revenue for this item
-                        double price = 0.0;
-                        if (flavorName.equals("S'morelicious") || flavorName.equals("Tropiham")) {
-                            price = 55.00;
-                        } else {
-                            price = 45.00;
-                        }
-                        
-                        double revenue = quantity * price;
-                        revenueByFlavor.merge(flavorName, revenue, Double::sum);
-                    }
-                }
-            }
-            
             // Clear existing data
             revenueFlavorChart.getData().clear();
             
@@ -575,56 +424,16 @@ public class AnalyticsController implements Initializable {
         }
     }
 
-    /**
-     * Extract the flavor name from an item string
-     * Example: "2x Tropiham" returns "Tropiham"
-     */
-    private String extractFlavorName(String item) {
-        try {
-            return item.substring(item.indexOf("x") + 1).trim();
-        } catch (Exception e) {
-            logger.warning("⚠️ Error extracting flavor name from: " + item);
-            return "Unknown";
-        }
-    }
-
-    /**
-     * Extract the quantity from an item string
-     * Example: "2x Tropiham" returns 2
-     */
-    private int extractQuantity(String item) {
-        try {
-            return Integer.parseInt(item.substring(0, item.indexOf("x")).trim());
-        } catch (Exception e) {
-            logger.warning("⚠️ Error extracting quantity from: " + item);
-            return 0;
-        }
-    }
-
     /**
      * Update top selling flavors bar chart using filtered sales data
+     * @param flavorCounts Units sold per flavor in the current time period
      */
-    private void updateTopFlavorsChart() {
+    private void updateTopFlavorsChart(Map<String, Integer> flavorCounts) {
         if (topFlavorsChart == null) return;
         
         try {
             topFlavorsChart.getData().clear();
             
-            // Get filtered sales for current time period
-            List<SalesRecord> filteredSales = getFilteredSales();
-            
-            // Count sales by flavor from filtered sales data
-            Map<String, Integer> flavorCounts = new HashMap<>();
-            
-            for (SalesRecord sale : filteredSales) {
-                String[] items = sale.getItemsSold().split(";");
-                for (String item : items) {
-                    String flavor = extractFlavorName(item.trim());
-                    int quantity = extractQuantity(item.trim());
-                    flavorCounts.put(flavor, flavorCounts.getOrDefault(flavor, 0) + quantity);
-                }
-            }
-            
             XYChart.Series<Number, String> series = new XYChart.Series<>();
             series.setName("Units Sold");
             
@@ -645,24 +454,14 @@ public class AnalyticsController implements Initializable {
 
     /**
      * Update monthly revenue trend chart using filtered sales data
+     * @param monthlyRevenue Revenue per month label
      */
-    private void updateMonthlyRevenueChart() {
+    private void updateMonthlyRevenueChart(Map<String, Double> monthlyRevenue) {
         if (monthlyRevenueChart == null) return;
         
         try {
             monthlyRevenueChart.getData().clear();
             
-            // Get filtered sales for current time period
-            List<SalesRecord> filteredSales = getFilteredSales();
-            
-            // Group by month and calculate revenue from filtered sales data
-            Map<String, Double> monthlyRevenue = filteredSales.stream()
-                .collect(Collectors.groupingBy(
-                    sale -> extractMonthFromSale(sale),
-                    LinkedHashMap::new,
-                    Collectors.summingDouble(sale -> parseAmount(sale.getSaleAmount()))
-                ));
-            
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Monthly Revenue");
             
@@ -679,183 +478,6 @@ public class AnalyticsController implements Initializable {
         }
     }
 
-    // Helper methods
-    private double parseAmount(String amountStr) {
-        try {
-            return Double.parseDouble(amountStr.replace("₱", "").replace(",", "").trim());
-        } catch (NumberFormatException e) {
-            return 0.0;
-        }
-    }
-
-    private String extractDateFromOrder(RecentOrder order) {
-        try {
-            String dateStr = order.getOrderDate();
-            // Convert "Jun 24, 2025 9:09 PM" to "Jun 24"
-            if (dateStr.contains(",")) {
-                return dateStr.substring(0, dateStr.indexOf(",")).trim();
-            }
-            return dateStr;
-        } catch (Exception e) {
-            return "Unknown";
-        }
-    }
-
-    private String extractDateFromSale(SalesRecord sale) {
-        try {
-            String dateStr = sale.getSaleDateTime();
-            // Convert "Jun 24, 2025 9:09 PM" to "Jun 24"
-            if (dateStr.contains(",")) {
-                return dateStr.substring(0, dateStr.indexOf(",")).trim();
-            }
-            return dateStr;
-        } catch (Exception e) {
-            return "Unknown";
-        }
-    }
-
-    private String extractMonthFromOrder(RecentOrder order) {
-        try {
-            String dateStr = order.getOrderDate();
-            if (dateStr.contains(",")) {
-                String[] parts = dateStr.split(",");
-                if (parts.length >= 2) {
-                    String month = parts[0].trim().split(" ")[0]; // Get month name
-                    String year = parts[1].trim().split(" ")[0]; // Get year
-                    return month + " " + year;
-                }
-            }
-            return "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
-        }
-    }
-
-    private String extractMonthFromSale(SalesRecord sale) {
-        try {
-            String dateStr = sale.getSaleDateTime();
-            if (dateStr.contains(",")) {
-                String[] parts = dateStr.split(",");
-                if (parts.length >= 2) {
-                    String month = parts[0].trim().split(" ")[0]; // Get month name
-                    String year = parts[1].trim().split(" ")[0]; // Get year
-                    return month + " " + year;
-                }
-            }
-            return "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
-        }
-    }
-
-    private String findBestSellingItem(List<SalesRecord> salesData) {
-        Map<String, Integer> itemCounts = new HashMap<>();
-        
-        for (SalesRecord sale : salesData) {
-            String[] items = sale.getItemsSold().split(";");
-            for (String item : items) {
-                String flavor = extractFlavorName(item.trim());
-                int quantity = extractQuantity(item.trim());
-                itemCounts.put(flavor, itemCounts.getOrDefault(flavor, 0) + quantity);
-            }
-        }
-        
-        return itemCounts.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse("No data");
-    }
-
-    private double calculateCustomerRetention(List<SalesRecord> salesData) {
-        Set<String> uniqueCustomers = salesData.stream()
-            .map(SalesRecord::getContactNumber)
-            .collect(Collectors.toSet());
-        
-        long repeatCustomers = salesData.stream()
-            .collect(Collectors.groupingBy(SalesRecord::getContactNumber, Collectors.counting()))
-            .values().stream()
-            .filter(count -> count > 1)
-            .count();
-        
-        return uniqueCustomers.size() > 0 ? (repeatCustomers * 100.0) / uniqueCustomers.size() : 0.0;
-    }
-
-    private double calculateGrowthRate(List<SalesRecord> salesData) {
-        try {
-            LocalDate now = LocalDate.now();
-            LocalDate weekAgo = now.minusDays(7);
-            LocalDate twoWeeksAgo = now.minusDays(14);
-            
-            double lastWeekRevenue = salesData.stream()
-                .filter(sale -> isSaleInDateRange(sale, weekAgo, now))
-                .mapToDouble(sale -> parseAmount(sale.getSaleAmount()))
-                .sum();
-            
-            double previousWeekRevenue = salesData.stream()
-                .filter(sale -> isSaleInDateRange(sale, twoWeeksAgo, weekAgo))
-                .mapToDouble(sale -> parseAmount(sale.getSaleAmount()))
-                .sum();
-            
-            if (previousWeekRevenue > 0) {
-                return ((lastWeekRevenue - previousWeekRevenue) / previousWeekRevenue) * 100.0;
-            }
-            return 0.0;
-        } catch (Exception e) {
-            return 0.0;
-        }
-    }
-
-    private boolean isOrderInDateRange(RecentOrder order, LocalDate start, LocalDate end) {
-        try {
-            LocalDate orderDate = parseOrderDate(order.getOrderDate());
-            if (orderDate == null) return false;
-            
-            return !orderDate.isBefore(start) && !orderDate.isAfter(end);
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error checking order date range: " + order.getOrderDate(), e);
-            return false;
-        }
-    }
-
-    private boolean isSaleInDateRange(SalesRecord sale, LocalDate start, LocalDate end) {
-        try {
-            LocalDate saleDate = parseOrderDate(sale.getSaleDateTime());
-            if (saleDate == null) return false;
-            
-            return !saleDate.isBefore(start) && !saleDate.isAfter(end);
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error checking sale date range: " + sale.getSaleDateTime(), e);
-            return false;
-        }
-    }
-    
-    /**
-     * Parse date string from order/sale data
-     * Handles format: "Jun 24, 2025 9:09 PM"
-     */
-    private LocalDate parseOrderDate(String dateStr) {
-        try {
-            if (dateStr == null || dateStr.trim().isEmpty()) {
-                return null;
-            }
-            
-            // Extract date part before comma: "Jun 24, 2025 9:09 PM" -> "Jun 24, 2025"
-            if (dateStr.contains(",")) {
-                String[] parts = dateStr.split(",");
-                if (parts.length >= 2) {
-                    String datePart = parts[0].trim() + ", " + parts[1].trim().split(" ")[0];
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
-                    return LocalDate.parse(datePart, formatter);
-                }
-            }
-            
-            return null;
-        } catch (DateTimeParseException e) {
-            logger.log(Level.WARNING, "Failed to parse date: " + dateStr, e);
-            return null;
-        }
-    }
-    
     /**
      * Get date range for the specified time period
      * @param timePeriod The time period string (e.g., "Last 7 Days")
@@ -904,23 +526,21 @@ public class AnalyticsController implements Initializable {
     }
     
     /**
-     * Filter orders based on current time period
+     * Read the order and sales versions
+     * Call this before loading the snapshot and rollups: a change that lands while they load then
+     * leaves the data newer than its versions, so a cached result is recomputed rather than reused stale
+     * @return The current data versions
      */
-    private List<RecentOrder> getFilteredOrders() {
-        LocalDate[] dateRange = getDateRangeForPeriod(currentTimePeriod);
-        return allOrders.stream()
-                .filter(order -> isOrderInDateRange(order, dateRange[0], dateRange[1]))
-                .collect(Collectors.toList());
+    private DataVersions readDataVersions() {
+        return new DataVersions(OrderRepository.getInstance().getVersion(), dataService.getSalesVersion());
     }
     
     /**
-     * Filter sales based on current time period
+     * Pick up the current sales and order rollups
      */
-    private List<SalesRecord> getFilteredSales() {
-        LocalDate[] dateRange = getDateRangeForPeriod(currentTimePeriod);
-        return allSales.stream()
-                .filter(sale -> isSaleInDateRange(sale, dateRange[0], dateRange[1]))
-                .collect(Collectors.toList());
+    private void loadRollups() {
+        salesRollup = dataService.getSalesRollup();
+        orderRollup = OrderRepository.getInstance().getOrderRollup();
     }
 
     private void showErrorState() {
@@ -936,10 +556,11 @@ public class AnalyticsController implements Initializable {
     public void refreshData(String timePeriod) {
         logger.info("🔄 Refreshing analytics data for period: " + timePeriod);
         
-        dataService.refreshData();
-        allOrders = dataService.getAllOrders();
-        allSales = dataService.getAllSales();
-        calculateAndDisplayAnalytics();
+        DataVersions versions = readDataVersions();
+        dataService.loadOrderData();
+        salesSnapshot = dataService.getSalesSnapshot();
+        loadRollups();
+        calculateAndDisplayAnalytics(versions);
         
         logger.info("✅ Analytics data refresh completed");
     }
@@ -963,13 +584,14 @@ public class AnalyticsController implements Initializable {
             // Update current time period first
             currentTimePeriod = timePeriod;
             
-            // Reload data from files
-            dataService.refreshData();
-            allOrders = dataService.getAllOrders();
-            allSales = dataService.getAllSales();
+            // Orders come from the repository snapshot; the sales snapshot is only rebuilt if sales.txt changed
+            DataVersions versions = readDataVersions();
+            dataService.loadOrderData();
+            salesSnapshot = dataService.getSalesSnapshot();
+            loadRollups();
             
             // Calculate and display analytics immediately
-            calculateAndDisplayAnalytics();
+            calculateAndDisplayAnalytics(versions);
             
             logger.info("✅ Analytics refreshed successfully for period: " + timePeriod);
         } catch (Exception e) {
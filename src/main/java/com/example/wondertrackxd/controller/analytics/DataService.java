@@ -1,12 +1,19 @@
 package com.example.wondertrackxd.controller.analytics;
 
+import com.example.wondertrackxd.controller.data.CsvTokenizer;
+import com.example.wondertrackxd.controller.data.DailyRollup;
+import com.example.wondertrackxd.controller.data.OrderRepository;
+import com.example.wondertrackxd.controller.data.ProductCatalog;
+import com.example.wondertrackxd.controller.data.SalesLog;
+import com.example.wondertrackxd.controller.data.SalesSnapshot;
+import com.example.wondertrackxd.controller.data.SequenceAllocator;
 import com.example.wondertrackxd.controller.model.RecentOrder;
 import com.example.wondertrackxd.controller.model.SalesRecord;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -21,19 +28,36 @@ public class DataService {
     // Singleton instance
     private static DataService instance;
     
-    // File paths
-    private static final String SALES_FILE = "src/main/resources/txtFiles/sales.txt";
-    private static final String ORDERS_FILE = "src/main/resources/txtFiles/orders.txt";
+    // Binary columnar copy of sales.txt for analytics (derived, rebuilt when sales.txt changes)
+    private static final String SALES_SNAPSHOT_FILE = "src/main/resources/txtFiles/sales.bin";
+    
+    // Sales file access (append-only with tombstones)
+    private final SalesLog salesLog = SalesLog.getInstance();
     
     // Data collections
     private List<SalesRecord> allSales = new ArrayList<>();
     private List<RecentOrder> allOrders = new ArrayList<>();
     
+    // Sales are parsed on first use; size and last-modified of the sales.txt that allSales reflects
+    private boolean salesLoaded = false;
+    private long loadedSalesSize = -1;
+    private long loadedSalesModified = -1;
+    
+    // Currently mapped sales snapshot
+    private SalesSnapshot salesSnapshot;
+    
+    // Daily revenue, sale counts and units over allSales, kept in step as sales are created and removed
+    private DailyRollup salesRollup = new DailyRollup();
+    
+    // Incremented whenever allSales changes so readers can tell whether results derived from it are stale
+    private volatile long salesVersion = 0;
+    
     /**
      * Private constructor to prevent direct instantiation
+     * Orders come from the shared repository; sales.txt is only parsed when sales records are needed
      */
-    public DataService() {
-        loadAllData();
+    private DataService() {
+        loadOrderData();
     }
     
     /**
@@ -62,27 +86,14 @@ public class DataService {
     }
 
     /**
-     * Load order data from orders.txt
+     * Load order data from the shared order repository (read-only snapshot, no file I/O)
      * @return true if loading was successful
      */
     public boolean loadOrderData() {
         try {
-            if (Files.exists(Paths.get(ORDERS_FILE))) {
-                List<String> lines = Files.readAllLines(Paths.get(ORDERS_FILE));
-                
-                allOrders = lines.stream()
-                    .filter(line -> !line.trim().isEmpty())
-                    .filter(line -> !line.trim().startsWith("#"))
-                    .map(this::parseOrderLine)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-                
-                logger.info("✅ Loaded " + allOrders.size() + " orders from " + ORDERS_FILE);
-                return true;
-            } else {
-                logger.warning("⚠️ Orders file not found: " + ORDERS_FILE);
-                return false;
-            }
+            allOrders = OrderRepository.getInstance().getOrders();
+            logger.info("✅ Loaded " + allOrders.size() + " orders from order repository");
+            return true;
         } catch (Exception e) {
             logger.log(Level.SEVERE, "❌ Error loading order data", e);
             return false;
@@ -95,29 +106,36 @@ public class DataService {
      */
     public boolean loadSalesData() {
         try {
-            logger.info("📂 Loading sales data from: " + SALES_FILE);
+            logger.info("📂 Loading sales data from sales.txt");
             
-            if (Files.exists(Paths.get(SALES_FILE))) {
-                List<String> lines = Files.readAllLines(Paths.get(SALES_FILE));
-                logger.info("📝 Read " + lines.size() + " lines from file");
+            if (salesLog.exists()) {
+                // Capture the file state first so a concurrent change shows up as stale later
+                long size = salesLog.getFileSize();
+                long modified = salesLog.getLastModified();
+                List<String> lines = salesLog.readSaleLines();
+                logger.info("📝 Read " + lines.size() + " sale lines from file");
                 
-                allSales = lines.stream()
-                    .filter(line -> !line.trim().isEmpty())
-                    .filter(line -> !line.trim().startsWith("#"))
-                    .map(this::parseSalesLine)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
+                // One tokenizer reused for every line of the file
+                CsvTokenizer tokenizer = new CsvTokenizer();
+                List<SalesRecord> loaded = new ArrayList<>(lines.size());
+                for (String line : lines) {
+                    SalesRecord record = parseSalesLine(line, tokenizer);
+                    if (record != null) {
+                        loaded.add(record);
+                    }
+                }
+                allSales = loaded;
+                salesRollup = DailyRollup.ofSales(loaded);
+                salesLoaded = true;
+                salesVersion++;
+                loadedSalesSize = size;
+                loadedSalesModified = modified;
                 
                 logger.info("✅ Successfully loaded " + allSales.size() + " sales records");
                 
-                // Debug: Print first record if available
-                if (!allSales.isEmpty()) {
-                    logger.info("📝 First sales record: " + allSales.get(0).toString());
-                }
-                
                 return true;
             } else {
-                logger.warning("⚠️ Sales file not found: " + SALES_FILE);
+                logger.warning("⚠️ Sales file not found: sales.txt");
                 return false;
             }
         } catch (Exception e) {
@@ -128,6 +146,7 @@ public class DataService {
 
     /**
      * Remove a sales record when an order status changes from "Completed" to another status
+     * Appends a tombstone to sales.txt instead of rewriting it; the background compactor drops it later
      * @param orderId The order ID to remove from sales records
      * @return true if sales record was removed successfully
      */
@@ -135,17 +154,26 @@ public class DataService {
         logger.info("🗑️ Removing sales record for order: " + orderId);
         
         try {
-            // Find and remove the sales record from in-memory list
-            boolean removed = allSales.removeIf(sale -> sale.getOrderId().equals(orderId));
+            ensureSalesLoaded();
+            
+            // Find and remove the sales record from in-memory list, taking it out of the rollup too
+            boolean removed = false;
+            for (Iterator<SalesRecord> iterator = allSales.iterator(); iterator.hasNext(); ) {
+                SalesRecord sale = iterator.next();
+                if (sale.getOrderId().equals(orderId)) {
+                    iterator.remove();
+                    salesRollup.removeSale(sale);
+                    salesVersion++;
+                    removed = true;
+                }
+            }
             
             if (removed) {
-                // Rewrite the sales.txt file without the removed record
-                List<String> lines = Files.readAllLines(Paths.get(SALES_FILE));
-                List<String> updatedLines = lines.stream()
-                    .filter(line -> !line.contains("," + orderId + ","))
-                    .collect(Collectors.toList());
-                
-                Files.write(Paths.get(SALES_FILE), updatedLines);
+                // Hide the record with a tombstone keyed by order ID
+                if (!salesLog.appendTombstone(orderId)) {
+                    return false;
+                }
+                markSalesFileCurrent();
                 
                 logger.info("✅ Sales record removed successfully for order: " + orderId);
                 return true;
@@ -169,6 +197,8 @@ public class DataService {
         logger.info("💰 Creating sales record for order: " + order.getOrderId());
         
         try {
+            ensureSalesLoaded();
+            
             // Check if a sales record already exists for this order
             boolean recordExists = allSales.stream()
                 .anyMatch(sale -> sale.getOrderId().equals(order.getOrderId()));
@@ -179,7 +209,7 @@ public class DataService {
             }
             
             // Generate next sale ID
-            String nextSaleId = generateNextSaleId();
+            String nextSaleId = SequenceAllocator.getInstance().nextSaleId();
             
             // Use current timestamp for the sale date-time with proper format for sorting
             // Format: "MMM d, yyyy h:mm a" (e.g., "Jul 6, 2025 2:45 PM")
@@ -201,17 +231,17 @@ public class DataService {
             );
             
             // Append to sales.txt
-            Files.write(
-                Paths.get(SALES_FILE),
-                (salesLine + System.lineSeparator()).getBytes(),
-                StandardOpenOption.APPEND,
-                StandardOpenOption.CREATE
-            );
+            if (!salesLog.appendSale(salesLine)) {
+                return false;
+            }
+            markSalesFileCurrent();
             
             // Parse and add to in-memory list
-            SalesRecord newRecord = parseSalesLine(salesLine);
+            SalesRecord newRecord = parseSalesLine(salesLine, new CsvTokenizer());
             if (newRecord != null) {
                 allSales.add(newRecord);
+                salesRollup.addSale(newRecord);
+                salesVersion++;
                 logger.info("✅ Sales record created successfully: " + nextSaleId + " for order: " + order.getOrderId());
                 return true;
             } else {
@@ -225,99 +255,104 @@ public class DataService {
         }
     }
     
-    /**
-     * Generate the next sale ID based on existing sales records
-     */
-    private String generateNextSaleId() {
-        try {
-            if (allSales.isEmpty()) {
-                return "S001";
-            }
-            
-            // Get the last sale ID
-            String lastSaleId = allSales.get(allSales.size() - 1).getSaleId();
-            
-            // Extract the number and increment
-            int nextNumber = Integer.parseInt(lastSaleId.substring(1)) + 1;
-            return String.format("S%03d", nextNumber);
-            
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "⚠️ Error generating next sale ID, using timestamp-based ID", e);
-            return "S" + System.currentTimeMillis();
-        }
-    }
-
     // Data parsing methods
-    private RecentOrder parseOrderLine(String line) {
+    private SalesRecord parseSalesLine(String line, CsvTokenizer tokenizer) {
         try {
-            List<String> tokens = parseCSVLine(line);
+            int fieldCount = tokenizer.tokenize(line);
             
-            if (tokens.size() >= 11) {
-                return new RecentOrder(
-                    tokens.get(0), tokens.get(1), tokens.get(2), 
-                    tokens.get(3).replace("\"", ""), tokens.get(4), tokens.get(5), 
-                    tokens.get(6), tokens.get(7).replace("\"", ""), tokens.get(8),
-                    tokens.get(9).replace("\"", ""), tokens.get(10).replace("\"", "")
+            if (fieldCount >= 11) {
+                return new SalesRecord(
+                    tokenizer.field(0), tokenizer.field(1), tokenizer.field(2), tokenizer.field(3),
+                    tokenizer.field(4), ProductCatalog.getInstance().parseItems(tokenizer.field(4)),
+                    tokenizer.field(5), tokenizer.field(6),
+                    tokenizer.field(7), tokenizer.field(8),
+                    tokenizer.field(9), tokenizer.field(10)
                 );
             }
+            logger.warning("⚠️ Not enough tokens in line: " + fieldCount);
             return null;
         } catch (Exception e) {
-            logger.log(Level.WARNING, "Error parsing order line: " + line, e);
+            logger.log(Level.WARNING, "❌ Error parsing sales line: " + line, e);
             return null;
         }
     }
 
-    private SalesRecord parseSalesLine(String line) {
+    /**
+     * Get the memory-mapped columnar snapshot of all sales for analytics
+     * Reuses the mapped snapshot while sales.txt is unchanged, maps an up-to-date sales.bin from disk
+     * without parsing text, and otherwise rebuilds sales.bin (re-reading sales.txt only if it was
+     * changed outside this service)
+     * @return The sales snapshot, or null if it could not be built
+     */
+    public synchronized SalesSnapshot getSalesSnapshot() {
         try {
-            logger.info("📝 Parsing sales line: " + line);
+            long size = salesLog.getFileSize();
+            long modified = salesLog.getLastModified();
+            if (salesSnapshot != null && salesSnapshot.isBuiltFrom(size, modified)) {
+                return salesSnapshot;
+            }
             
-            List<String> tokens = parseCSVLine(line);
-            logger.info("📝 Parsed " + tokens.size() + " tokens");
+            Path snapshotPath = Paths.get(SALES_SNAPSHOT_FILE);
+            if (salesSnapshot == null && Files.exists(snapshotPath)) {
+                try {
+                    SalesSnapshot onDisk = SalesSnapshot.open(snapshotPath);
+                    if (onDisk.isBuiltFrom(size, modified)) {
+                        logger.info("🗺️ Mapped sales snapshot with " + onDisk.getRowCount() + " sales");
+                        salesSnapshot = onDisk;
+                        return salesSnapshot;
+                    }
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "⚠️ Ignoring unreadable sales snapshot", e);
+                }
+            }
             
-            if (tokens.size() >= 11) {
-                SalesRecord record = new SalesRecord(
-                    tokens.get(0), tokens.get(1), tokens.get(2), tokens.get(3),
-                    tokens.get(4).replace("\"", ""), tokens.get(5), tokens.get(6), 
-                    tokens.get(7), tokens.get(8).replace("\"", ""), 
-                    tokens.get(9).replace("\"", ""), tokens.get(10)
-                );
-                logger.info("✅ Successfully created SalesRecord: " + record.toString());
-                return record;
+            if (!salesLoaded || loadedSalesSize != size || loadedSalesModified != modified) {
+                loadSalesData();
             }
-            logger.warning("⚠️ Not enough tokens in line: " + tokens.size());
-            return null;
+            salesSnapshot = SalesSnapshot.write(snapshotPath, allSales, loadedSalesSize, loadedSalesModified);
+            logger.info("🗺️ Rebuilt sales snapshot with " + salesSnapshot.getRowCount() + " sales");
+            return salesSnapshot;
         } catch (Exception e) {
-            logger.log(Level.WARNING, "❌ Error parsing sales line: " + line, e);
-            return null;
+            logger.log(Level.SEVERE, "❌ Error building sales snapshot", e);
+            return salesSnapshot;
         }
     }
 
-    private List<String> parseCSVLine(String line) {
-        List<String> tokens = new ArrayList<>();
-        StringBuilder currentToken = new StringBuilder();
-        boolean inQuotes = false;
-        
-        try {
-            for (char c : line.toCharArray()) {
-                if (c == '"') {
-                    inQuotes = !inQuotes;
-                } else if (c == ',' && !inQuotes) {
-                    tokens.add(currentToken.toString().trim());
-                    currentToken = new StringBuilder();
-                } else {
-                    currentToken.append(c);
-                }
-            }
-            tokens.add(currentToken.toString().trim());
-            
-            logger.info("📝 CSV parsing - tokens: " + tokens.size() + ", first token: " + 
-                       (tokens.isEmpty() ? "none" : tokens.get(0)));
-            
-            return tokens;
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "❌ Error parsing CSV line: " + line, e);
-            return new ArrayList<>();
+    /**
+     * Get the daily sales rollup, re-reading sales.txt first if it was changed outside this service
+     * Every sale counts as a completed order under its sale date.
+     * @return The sales rollup
+     */
+    public synchronized DailyRollup getSalesRollup() {
+        if (!salesLoaded || loadedSalesSize != salesLog.getFileSize() || loadedSalesModified != salesLog.getLastModified()) {
+            loadSalesData();
         }
+        return salesRollup;
+    }
+
+    /**
+     * Get the version of the in-memory sales
+     * @return A number that increases every time sales are loaded, created or removed
+     */
+    public long getSalesVersion() {
+        return salesVersion;
+    }
+
+    /**
+     * Parse sales.txt if it has not been loaded yet
+     */
+    private void ensureSalesLoaded() {
+        if (!salesLoaded) {
+            loadSalesData();
+        }
+    }
+
+    /**
+     * Record that allSales matches sales.txt after one of our own appends
+     */
+    private void markSalesFileCurrent() {
+        loadedSalesSize = salesLog.getFileSize();
+        loadedSalesModified = salesLog.getLastModified();
     }
 
     // Getter methods for data access
@@ -326,6 +361,7 @@ public class DataService {
     }
 
     public List<SalesRecord> getAllSales() {
+        ensureSalesLoaded();
         return new ArrayList<>(allSales);
     }
 
@@ -342,28 +378,21 @@ public class DataService {
     }
 
     public double getTotalRevenue() {
+        ensureSalesLoaded();
         return allSales.stream()
-            .mapToDouble(sale -> parseAmount(sale.getSaleAmount()))
-            .sum();
+            .mapToLong(SalesRecord::getSaleAmountCentavos)
+            .sum() / 100.0;
     }
 
     public double getAverageOrderValue() {
+        ensureSalesLoaded();
         return allSales.size() > 0 ? getTotalRevenue() / allSales.size() : 0.0;
     }
 
-    private double parseAmount(String amountStr) {
-        try {
-            return Double.parseDouble(amountStr.replace("₱", "").replace(",", "").trim());
-        } catch (NumberFormatException e) {
-            return 0.0;
-        }
-    }
-
     /**
-     * Refresh all data by reloading from files
+     * Refresh all data (orders come from the shared repository snapshot, sales from sales.txt)
      */
     public void refreshData() {
-        allOrders.clear();
         allSales.clear();
         loadAllData();
     }
@@ -0,0 +1,42 @@
+package com.example.wondertrackxd.controller.data;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared background scheduler for file maintenance work (journal folding, log compaction)
+ * Runs on a single daemon thread so it never blocks the JavaFX Application Thread or app exit
+ */
+public final class BackgroundCompactor {
+
+    private static final Logger logger = Logger.getLogger(BackgroundCompactor.class.getName());
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wondertrack-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BackgroundCompactor() {
+    }
+
+    /**
+     * Schedule a maintenance task to run periodically in the background
+     * @param name Task name used for logging
+     * @param task The maintenance work to run
+     * @param periodSeconds Delay between runs in seconds
+     */
+    public static void schedule(String name, Runnable task, long periodSeconds) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "⚠️ Background task failed: " + name, e);
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        logger.info("🗜️ Scheduled background task '" + name + "' every " + periodSeconds + "s");
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.wondertrackxd.controller.data;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, quote-aware tokenizer for the comma-separated lines in orders.txt and sales.txt
+ *
+ * Tokenizing a line only records the start and end offset of each field in the original line;
+ * no characters are copied. Strings are built on demand by field(int) for the fields a caller
+ * actually needs. One instance can be reused for every line of a file but is not thread-safe.
+ *
+ * Field values follow the existing file rules: commas inside double quotes do not split,
+ * quote characters are dropped and surrounding whitespace is trimmed.
+ */
+public final class CsvTokenizer {
+
+    private String line;
+    private int count;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] quoted = new boolean[16];
+
+    /**
+     * Split a line into fields, replacing the result of the previous call
+     * @param line The raw line
+     * @return Number of fields found
+     */
+    public int tokenize(String line) {
+        this.line = line;
+        this.count = 0;
+
+        boolean inQuotes = false;
+        boolean sawQuote = false;
+        int fieldStart = 0;
+        int length = line.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+                sawQuote = true;
+            } else if (c == ',' && !inQuotes) {
+                addField(fieldStart, i, sawQuote);
+                fieldStart = i + 1;
+                sawQuote = false;
+            }
+        }
+        addField(fieldStart, length, sawQuote);
+        return count;
+    }
+
+    /**
+     * Get the number of fields found by the last tokenize call
+     * @return Field count
+     */
+    public int fieldCount() {
+        return count;
+    }
+
+    /**
+     * Get the trimmed start offset of a field in the original line (before quote removal)
+     * @param index Field index
+     * @return Start offset, inclusive
+     */
+    public int fieldStart(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    /**
+     * Get the trimmed end offset of a field in the original line (before quote removal)
+     * @param index Field index
+     * @return End offset, exclusive
+     */
+    public int fieldEnd(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Build the value of a single field
+     * @param index Field index
+     * @return Field value with quotes removed and whitespace trimmed
+     */
+    public String field(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int end = ends[index];
+
+        if (!quoted[index]) {
+            return line.substring(start, end);
+        }
+
+        // Common case: the whole field is wrapped in one pair of quotes
+        if (end - start >= 2 && line.charAt(start) == '"' && line.charAt(end - 1) == '"'
+                && indexOfQuote(start + 1, end - 1) < 0) {
+            return line.substring(start + 1, end - 1).trim();
+        }
+
+        // Quotes elsewhere in the field: drop every quote character
+        StringBuilder value = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c != '"') {
+                value.append(c);
+            }
+        }
+        return value.toString().trim();
+    }
+
+    private void addField(int start, int end, boolean sawQuote) {
+        // Trim surrounding whitespace by moving the offsets inward
+        while (start < end && line.charAt(start) <= ' ') start++;
+        while (end > start && line.charAt(end - 1) <= ' ') end--;
+
+        if (count == starts.length) {
+            int capacity = count * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            quoted = Arrays.copyOf(quoted, capacity);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        quoted[count] = sawQuote;
+        count++;
+    }
+
+    private int indexOfQuote(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line.charAt(i) == '"') return i;
+        }
+        return -1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + count);
+        }
+    }
+}
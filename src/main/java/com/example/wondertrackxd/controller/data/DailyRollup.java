@@ -0,0 +1,443 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.LineItem;
+import com.example.wondertrackxd.controller.model.Order;
+import com.example.wondertrackxd.controller.model.OrderStatus;
+import com.example.wondertrackxd.controller.model.PaymentMethod;
+import com.example.wondertrackxd.controller.model.RecentOrder;
+import com.example.wondertrackxd.controller.model.SalesRecord;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Pre-aggregated daily totals of orders or sales
+ *
+ * Every calendar day holds one cell per (order status, payment method) with the number of orders
+ * and their revenue, plus the units sold and line revenue of every product in that cell. Records are added and
+ * removed as they are created, completed or cancelled, so a period total is the sum of at most
+ * one cell set per day in the period (366 for a year) instead of a scan of every record.
+ * Product IDs are ProductCatalog IDs.
+ *
+ * Order counts, revenue and units per status are also kept as day series in Fenwick trees, so
+ * the headline figures of any date range (and of the range before it, for growth rates) come
+ * from O(log days) prefix sums without visiting the days in between.
+ */
+public class DailyRollup {
+
+    private static final int METHOD_COUNT = PaymentMethod.values().length;
+    private static final int STATUS_COUNT = OrderStatus.values().length;
+    private static final int CELL_COUNT = STATUS_COUNT * METHOD_COUNT;
+
+    // Days kept free on each side of the recorded days when the series are (re)sized
+    private static final int SERIES_MARGIN = 366;
+
+    // Totals by epoch day
+    private final TreeMap<Long, Totals> days = new TreeMap<>();
+
+    // Day series by status ordinal, position = epoch day - firstDay; null until the first record
+    private long firstDay;
+    private FenwickTree[] orderSeries;
+    private FenwickTree[] revenueSeries;
+    private FenwickTree[] unitSeries;
+
+    /**
+     * Build a rollup of orders, keyed by order date
+     * @param orders All orders
+     * @return The rollup
+     */
+    public static DailyRollup ofOrders(List<RecentOrder> orders) {
+        DailyRollup rollup = new DailyRollup();
+        for (RecentOrder order : orders) {
+            Order value = order.getOrder();
+            rollup.addCells(value.orderDate(), value.orderStatus(), value.paymentMethod(), value.amountCentavos(),
+                value.items(), 1);
+        }
+        rollup.rebuildSeries();
+        return rollup;
+    }
+
+    /**
+     * Build a rollup of sales, keyed by sale date
+     * @param sales All sales records
+     * @return The rollup
+     */
+    public static DailyRollup ofSales(List<SalesRecord> sales) {
+        DailyRollup rollup = new DailyRollup();
+        for (SalesRecord sale : sales) {
+            LocalDateTime dateTime = DateTimeParser.parse(sale.getSaleDateTime());
+            if (dateTime != null) {
+                rollup.addCells(dateTime.toLocalDate(), OrderStatus.COMPLETED, PaymentMethod.fromLabel(sale.getPaymentMethod()),
+                    sale.getSaleAmountCentavos(), sale.getLineItems(), 1);
+            }
+        }
+        rollup.rebuildSeries();
+        return rollup;
+    }
+
+    /**
+     * Add an order under its order date, status and payment method
+     * @param order The order
+     */
+    public synchronized void addOrder(Order order) {
+        add(order.orderDate(), order.orderStatus(), order.paymentMethod(), order.amountCentavos(), order.items(), 1);
+    }
+
+    /**
+     * Take back an order added with addOrder
+     * @param order The order as it was added
+     */
+    public synchronized void removeOrder(Order order) {
+        add(order.orderDate(), order.orderStatus(), order.paymentMethod(), order.amountCentavos(), order.items(), -1);
+    }
+
+    /**
+     * Move an order from its previous status to its current one
+     * @param order The order, already holding its new status
+     * @param previous Status the order was added with
+     */
+    public synchronized void changeOrderStatus(Order order, OrderStatus previous) {
+        if (previous == order.orderStatus()) return;
+        add(order.orderDate(), previous, order.paymentMethod(), order.amountCentavos(), order.items(), -1);
+        add(order.orderDate(), order.orderStatus(), order.paymentMethod(), order.amountCentavos(), order.items(), 1);
+    }
+
+    /**
+     * Add a sale as a completed order under its sale date; sales without a valid date are skipped
+     * @param sale The sales record
+     */
+    public synchronized void addSale(SalesRecord sale) {
+        addSale(sale, 1);
+    }
+
+    /**
+     * Take back a sale added with addSale
+     * @param sale The removed sales record
+     */
+    public synchronized void removeSale(SalesRecord sale) {
+        addSale(sale, -1);
+    }
+
+    /**
+     * Sum the cells of a date range
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @return New totals of the range
+     */
+    public synchronized Totals sum(LocalDate from, LocalDate to) {
+        Totals total = new Totals();
+        for (Totals day : range(from, to).values()) {
+            total.add(day);
+        }
+        return total;
+    }
+
+    /**
+     * Get the totals of one day
+     * @param date The day
+     * @return Copy of the day's totals (all zero if nothing was recorded that day)
+     */
+    public synchronized Totals getDay(LocalDate date) {
+        Totals copy = new Totals();
+        Totals day = days.get(date.toEpochDay());
+        if (day != null) {
+            copy.add(day);
+        }
+        return copy;
+    }
+
+    /**
+     * Get the totals of every day with activity in a date range
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @return New map of day to a copy of its totals, oldest first
+     */
+    public synchronized NavigableMap<LocalDate, Totals> daily(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Totals> result = new TreeMap<>();
+        for (Map.Entry<Long, Totals> entry : range(from, to).entrySet()) {
+            Totals copy = new Totals();
+            copy.add(entry.getValue());
+            result.put(LocalDate.ofEpochDay(entry.getKey()), copy);
+        }
+        return result;
+    }
+
+    /**
+     * Count the orders of a date range in O(log days)
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @return Number of orders in all statuses
+     */
+    public synchronized long getOrderCount(LocalDate from, LocalDate to) {
+        return seriesSum(orderSeries, null, from, to);
+    }
+
+    /**
+     * Count the orders with a status in a date range in O(log days)
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @param status Status to count
+     * @return Number of matching orders
+     */
+    public synchronized long getOrderCount(LocalDate from, LocalDate to, OrderStatus status) {
+        return seriesSum(orderSeries, status, from, to);
+    }
+
+    /**
+     * Sum the revenue of a date range in O(log days)
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @return Revenue in centavos of orders in all statuses
+     */
+    public synchronized long getRevenueCentavos(LocalDate from, LocalDate to) {
+        return seriesSum(revenueSeries, null, from, to);
+    }
+
+    /**
+     * Sum the revenue of the orders with a status in a date range in O(log days)
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @param status Status to sum
+     * @return Revenue in centavos of the matching orders
+     */
+    public synchronized long getRevenueCentavos(LocalDate from, LocalDate to, OrderStatus status) {
+        return seriesSum(revenueSeries, status, from, to);
+    }
+
+    /**
+     * Sum the units sold in a date range in O(log days)
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @return Units of all products in all statuses
+     */
+    public synchronized long getUnits(LocalDate from, LocalDate to) {
+        return seriesSum(unitSeries, null, from, to);
+    }
+
+    private long seriesSum(FenwickTree[] series, OrderStatus status, LocalDate from, LocalDate to) {
+        if (series == null) return 0;
+        long start = Math.max(from.toEpochDay() - firstDay, 0);
+        long end = Math.min(to.toEpochDay() - firstDay, series[0].size() - 1);
+        if (start > end) return 0;
+
+        if (status != null) {
+            return series[status.ordinal()].rangeSum((int) start, (int) end);
+        }
+        long sum = 0;
+        for (FenwickTree tree : series) {
+            sum += tree.rangeSum((int) start, (int) end);
+        }
+        return sum;
+    }
+
+    /**
+     * Size the day series to cover every recorded day with a margin on both sides and refill them from the cells
+     */
+    private void rebuildSeries() {
+        if (days.isEmpty()) return;
+        long lastDay = days.lastKey();
+        firstDay = days.firstKey() - SERIES_MARGIN;
+        int size = (int) (lastDay - firstDay + 1 + SERIES_MARGIN);
+        orderSeries = new FenwickTree[STATUS_COUNT];
+        revenueSeries = new FenwickTree[STATUS_COUNT];
+        unitSeries = new FenwickTree[STATUS_COUNT];
+        for (int status = 0; status < STATUS_COUNT; status++) {
+            orderSeries[status] = new FenwickTree(size);
+            revenueSeries[status] = new FenwickTree(size);
+            unitSeries[status] = new FenwickTree(size);
+        }
+
+        for (Map.Entry<Long, Totals> entry : days.entrySet()) {
+            int position = (int) (entry.getKey() - firstDay);
+            Totals day = entry.getValue();
+            for (int cell = 0; cell < CELL_COUNT; cell++) {
+                int status = cell / METHOD_COUNT;
+                orderSeries[status].add(position, day.orders[cell]);
+                revenueSeries[status].add(position, day.revenue[cell]);
+                long units = 0;
+                for (long[] product : day.products) {
+                    if (product != null) units += product[cell];
+                }
+                unitSeries[status].add(position, units);
+            }
+        }
+    }
+
+    private NavigableMap<Long, Totals> range(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) return new TreeMap<>();
+        return days.subMap(from.toEpochDay(), true, to.toEpochDay(), true);
+    }
+
+    private void addSale(SalesRecord sale, int sign) {
+        LocalDateTime dateTime = DateTimeParser.parse(sale.getSaleDateTime());
+        if (dateTime == null) return;
+        add(dateTime.toLocalDate(), OrderStatus.COMPLETED, PaymentMethod.fromLabel(sale.getPaymentMethod()),
+            sale.getSaleAmountCentavos(), sale.getLineItems(), sign);
+    }
+
+    private void add(LocalDate date, OrderStatus status, PaymentMethod method, long amountCentavos,
+                     List<LineItem> items, int sign) {
+        long epochDay = date.toEpochDay();
+        long units = addCells(date, status, method, amountCentavos, items, sign);
+        if (orderSeries == null || epochDay < firstDay || epochDay - firstDay >= orderSeries[0].size()) {
+            rebuildSeries();
+        } else {
+            int position = (int) (epochDay - firstDay);
+            orderSeries[status.ordinal()].add(position, sign);
+            revenueSeries[status.ordinal()].add(position, sign * amountCentavos);
+            unitSeries[status.ordinal()].add(position, units);
+        }
+    }
+
+    /**
+     * Update the day cell only, leaving the series to the caller
+     * @return Units added (negative when removing)
+     */
+    private long addCells(LocalDate date, OrderStatus status, PaymentMethod method, long amountCentavos,
+                          List<LineItem> items, int sign) {
+        long epochDay = date.toEpochDay();
+        Totals day = days.computeIfAbsent(epochDay, key -> new Totals());
+        int cell = status.ordinal() * METHOD_COUNT + method.ordinal();
+        day.orders[cell] += sign;
+        day.revenue[cell] += sign * amountCentavos;
+        long units = 0;
+        for (LineItem item : items) {
+            long[] product = day.product(item.productId());
+            product[cell] += sign * (long) item.quantity();
+            product[CELL_COUNT + cell] += sign * item.totalCentavos();
+            units += sign * (long) item.quantity();
+        }
+        return units;
+    }
+
+    /**
+     * Order counts, revenue and units sold over a set of cells
+     * Product revenue is the sum of quantity * unit price of the product's line items, at the unit
+     * price each order or sale recorded
+     */
+    public static final class Totals {
+
+        private final long[] orders = new long[CELL_COUNT];
+        private final long[] revenue = new long[CELL_COUNT];
+
+        // By product ID: units per cell, then line revenue in centavos per cell; a product's row is
+        // created when it first sells
+        private long[][] products = new long[0][];
+
+        private Totals() {
+        }
+
+        /**
+         * @return Number of orders in all statuses
+         */
+        public long getOrderCount() {
+            return Arrays.stream(orders).sum();
+        }
+
+        /**
+         * @return Number of orders with the given status
+         */
+        public long getOrderCount(OrderStatus status) {
+            long count = 0;
+            for (int cell = status.ordinal() * METHOD_COUNT; cell < (status.ordinal() + 1) * METHOD_COUNT; cell++) {
+                count += orders[cell];
+            }
+            return count;
+        }
+
+        /**
+         * @return Number of orders paid with the given method
+         */
+        public long getOrderCount(PaymentMethod method) {
+            long count = 0;
+            for (int cell = method.ordinal(); cell < CELL_COUNT; cell += METHOD_COUNT) {
+                count += orders[cell];
+            }
+            return count;
+        }
+
+        /**
+         * @return Revenue in centavos of all orders
+         */
+        public long getRevenueCentavos() {
+            return Arrays.stream(revenue).sum();
+        }
+
+        /**
+         * @return Revenue in centavos of the orders with the given status
+         */
+        public long getRevenueCentavos(OrderStatus status) {
+            long centavos = 0;
+            for (int cell = status.ordinal() * METHOD_COUNT; cell < (status.ordinal() + 1) * METHOD_COUNT; cell++) {
+                centavos += revenue[cell];
+            }
+            return centavos;
+        }
+
+        /**
+         * @return Revenue in centavos of the orders paid with the given method
+         */
+        public long getRevenueCentavos(PaymentMethod method) {
+            long centavos = 0;
+            for (int cell = method.ordinal(); cell < CELL_COUNT; cell += METHOD_COUNT) {
+                centavos += revenue[cell];
+            }
+            return centavos;
+        }
+
+        /**
+         * @return One more than the highest product ID with units recorded
+         */
+        public int getProductLimit() {
+            return products.length;
+        }
+
+        /**
+         * @param productId ProductCatalog ID
+         * @return Units of the product sold in all statuses
+         */
+        public long getUnits(int productId) {
+            if (productId >= products.length || products[productId] == null) return 0;
+            return Arrays.stream(products[productId], 0, CELL_COUNT).sum();
+        }
+
+        /**
+         * @param productId ProductCatalog ID
+         * @return Line revenue in centavos of the product in all statuses
+         */
+        public long getProductRevenueCentavos(int productId) {
+            if (productId >= products.length || products[productId] == null) return 0;
+            return Arrays.stream(products[productId], CELL_COUNT, 2 * CELL_COUNT).sum();
+        }
+
+        private long[] product(int productId) {
+            if (productId >= products.length) {
+                products = Arrays.copyOf(products, Math.max(productId + 1, products.length * 2));
+            }
+            if (products[productId] == null) {
+                products[productId] = new long[2 * CELL_COUNT];
+            }
+            return products[productId];
+        }
+
+        private void add(Totals other) {
+            for (int cell = 0; cell < CELL_COUNT; cell++) {
+                orders[cell] += other.orders[cell];
+                revenue[cell] += other.revenue[cell];
+            }
+            for (int productId = 0; productId < other.products.length; productId++) {
+                long[] otherProduct = other.products[productId];
+                if (otherProduct == null) continue;
+                long[] target = product(productId);
+                for (int i = 0; i < target.length; i++) {
+                    target[i] += otherProduct[i];
+                }
+            }
+        }
+    }
+}
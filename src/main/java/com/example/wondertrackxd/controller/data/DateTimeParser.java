@@ -0,0 +1,189 @@
+package com.example.wondertrackxd.controller.data;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Single-pass parser for the date formats found in orders.txt and sales.txt
+ *
+ * Accepted formats (month names are English abbreviations, case is ignored):
+ * - "Jan 26, 2025 3:45 PM", "Jan 26, 2025 15:45" and "Jan 26, 2025"
+ * - "01/26/2025 3:45 PM" (MM/dd/yyyy, optional time)
+ * - "2025-01-26", "2025-01-26 15:45:00" and "2025-01-26T15:45" (seconds may have a fraction)
+ *
+ * The text is scanned once without regular expressions, formatters or exceptions; an invalid
+ * value, including one with anything but spaces after the time or its AM/PM marker, returns null. Results (including failures) are kept in a small direct-mapped cache, since
+ * the same date strings are parsed over and over while loading, filtering and sorting.
+ */
+public final class DateTimeParser {
+
+    private static final String[] MONTHS = {
+        "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"
+    };
+
+    // Direct-mapped cache of recently parsed strings; entries are immutable, so racing writers are harmless
+    private static final int CACHE_SIZE = 512;
+    private static final Entry[] cache = new Entry[CACHE_SIZE];
+
+    private record Entry(String text, LocalDateTime value) {
+    }
+
+    private DateTimeParser() {
+    }
+
+    /**
+     * Parse a date or date-time; date-only values resolve to the start of the day
+     * @param text Date text in one of the accepted formats
+     * @return The parsed value, or null if the text is blank or not a valid date
+     */
+    public static LocalDateTime parse(String text) {
+        if (text == null) return null;
+
+        int slot = text.hashCode() & (CACHE_SIZE - 1);
+        Entry entry = cache[slot];
+        if (entry != null && entry.text.equals(text)) {
+            return entry.value;
+        }
+
+        LocalDateTime value = new Scanner(text).parse();
+        cache[slot] = new Entry(text, value);
+        return value;
+    }
+
+    /**
+     * Cursor over one date string
+     */
+    private static final class Scanner {
+
+        private final String text;
+        private int pos;
+
+        Scanner(String text) {
+            this.text = text;
+        }
+
+        LocalDateTime parse() {
+            skipSpaces();
+            if (pos >= text.length()) return null;
+
+            int year;
+            int month;
+            int day;
+            char first = text.charAt(pos);
+            if (Character.isLetter(first)) {
+                // "Jan 26, 2025 ..."
+                month = readMonth();
+                skipSpaces();
+                day = readNumber(2);
+                if (!skip(',')) return null;
+                skipSpaces();
+                year = readNumber(4);
+            } else {
+                int number = readNumber(4);
+                if (skip('/')) {
+                    // "01/26/2025 ..."
+                    month = number;
+                    day = readNumber(2);
+                    if (!skip('/')) return null;
+                    year = readNumber(4);
+                } else if (skip('-')) {
+                    // "2025-01-26 ..."
+                    year = number;
+                    month = readNumber(2);
+                    if (!skip('-')) return null;
+                    day = readNumber(2);
+                    skip('T');
+                } else {
+                    return null;
+                }
+            }
+
+            if (year < 1 || month < 1 || month > 12 || day < 1
+                    || day > Month.of(month).length(Year.isLeap(year))) {
+                return null;
+            }
+
+            skipSpaces();
+            if (pos >= text.length()) {
+                return LocalDateTime.of(year, month, day, 0, 0);
+            }
+
+            int hour = readNumber(2);
+            if (!skip(':')) return null;
+            int minute = readNumber(2);
+            if (skip(':')) {
+                // Seconds are dropped; order and sale times are kept to the minute
+                if (readNumber(2) < 0) return null;
+                if (skip('.') && readNumber(9) < 0) return null;
+            }
+            skipSpaces();
+            if (pos + 1 < text.length() && Character.toUpperCase(text.charAt(pos + 1)) == 'M') {
+                char marker = Character.toUpperCase(text.charAt(pos));
+                if (marker == 'P' && hour < 12) {
+                    hour += 12;
+                } else if (marker == 'A' && hour == 12) {
+                    hour = 0;
+                } else if (marker != 'A' && marker != 'P') {
+                    return null;
+                }
+                pos += 2;
+            }
+
+            // Nothing may follow the time or its marker
+            skipSpaces();
+            if (pos < text.length()) return null;
+
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59) return null;
+            return LocalDateTime.of(year, month, day, hour, minute);
+        }
+
+        /**
+         * Read up to maxDigits digits
+         * @return The number, or -1 if there is no digit at the cursor
+         */
+        private int readNumber(int maxDigits) {
+            int value = 0;
+            int start = pos;
+            while (pos < text.length() && pos - start < maxDigits) {
+                char c = text.charAt(pos);
+                if (c < '0' || c > '9') break;
+                value = value * 10 + (c - '0');
+                pos++;
+            }
+            return pos == start ? -1 : value;
+        }
+
+        /**
+         * Read a month name, matching its first three letters
+         * @return Month number 1-12, or -1 if unknown
+         */
+        private int readMonth() {
+            int start = pos;
+            while (pos < text.length() && Character.isLetter(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos - start < 3) return -1;
+            for (int i = 0; i < MONTHS.length; i++) {
+                if (text.regionMatches(true, start, MONTHS[i], 0, 3)) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        private boolean skip(char c) {
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && text.charAt(pos) == ' ') {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.wondertrackxd.controller.data;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One bitmap of row numbers per value of a small enum (order status, payment method)
+ *
+ * Row numbers are positions in a list, so the bitmaps stay dense and small: one bit per row
+ * per value. Filtering on several values is an OR of their bitmaps, combining columns is an AND,
+ * and a count is a cardinality, instead of comparing strings row by row.
+ * @param <E> Enum type of the indexed column
+ */
+public class EnumBitmapIndex<E extends Enum<E>> {
+
+    private final Map<E, BitSet> rowsByValue;
+
+    /**
+     * Create an empty index
+     * @param type Enum class of the indexed column
+     */
+    public EnumBitmapIndex(Class<E> type) {
+        rowsByValue = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            rowsByValue.put(value, new BitSet());
+        }
+    }
+
+    private EnumBitmapIndex(Map<E, BitSet> rowsByValue) {
+        this.rowsByValue = rowsByValue;
+    }
+
+    /**
+     * @return Independent copy of this index
+     */
+    public synchronized EnumBitmapIndex<E> copy() {
+        Map<E, BitSet> copied = new EnumMap<>(rowsByValue);
+        copied.replaceAll((value, rows) -> (BitSet) rows.clone());
+        return new EnumBitmapIndex<>(copied);
+    }
+
+    /**
+     * Copy this index for a list with one row inserted at the front
+     * Every row moves up by one; row 0 has no value until it is set
+     * @return Independent, shifted copy of this index
+     */
+    public synchronized EnumBitmapIndex<E> copyWithRowInsertedFirst() {
+        Map<E, BitSet> copied = new EnumMap<>(rowsByValue);
+        copied.replaceAll((value, rows) -> shiftUp(rows));
+        return new EnumBitmapIndex<>(copied);
+    }
+
+    /**
+     * Set the value of a row, clearing any previous value
+     * @param row Row number
+     * @param value New value of the row
+     * @return The previous value of the row, or null if it had none
+     */
+    public synchronized E set(int row, E value) {
+        E previous = null;
+        for (Map.Entry<E, BitSet> entry : rowsByValue.entrySet()) {
+            if (entry.getValue().get(row)) {
+                previous = entry.getKey();
+                entry.getValue().clear(row);
+            }
+        }
+        rowsByValue.get(value).set(row);
+        return previous;
+    }
+
+    /**
+     * Get the rows holding any of the given values
+     * @param values Accepted values
+     * @return New bitmap of the matching rows (the caller may modify it)
+     */
+    public synchronized BitSet rows(Set<E> values) {
+        BitSet result = new BitSet();
+        for (E value : values) {
+            result.or(rowsByValue.get(value));
+        }
+        return result;
+    }
+
+    /**
+     * Count the rows holding a value
+     * @param value The value
+     * @param mask Rows to count within, or null for all rows
+     * @return Number of matching rows
+     */
+    public synchronized int count(E value, BitSet mask) {
+        BitSet rows = rowsByValue.get(value);
+        if (mask == null) return rows.cardinality();
+
+        BitSet both = (BitSet) rows.clone();
+        both.and(mask);
+        return both.cardinality();
+    }
+
+    private static BitSet shiftUp(BitSet rows) {
+        // Word by word, carrying the top bit of each word into the next
+        long[] words = rows.toLongArray();
+        long[] shifted = new long[words.length + 1];
+        for (int i = 0; i < words.length; i++) {
+            shifted[i] |= words[i] << 1;
+            shifted[i + 1] = words[i] >>> 63;
+        }
+        return BitSet.valueOf(shifted);
+    }
+}
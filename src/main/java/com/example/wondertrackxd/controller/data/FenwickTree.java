@@ -0,0 +1,63 @@
+package com.example.wondertrackxd.controller.data;
+
+/**
+ * Binary indexed tree of long values: point updates and prefix sums in O(log n)
+ *
+ * Positions are 0-based. Each slot i (1-based internally) holds the sum of the values in the
+ * positions covered by its lowest set bit, so both an update and a prefix sum touch at most
+ * log2(n) slots.
+ */
+public class FenwickTree {
+
+    private final long[] tree;
+
+    /**
+     * Create a tree of zeros
+     * @param size Number of positions
+     */
+    public FenwickTree(int size) {
+        tree = new long[size + 1];
+    }
+
+    /**
+     * @return Number of positions
+     */
+    public int size() {
+        return tree.length - 1;
+    }
+
+    /**
+     * Add to the value at a position
+     * @param position 0-based position
+     * @param delta Amount to add (may be negative)
+     */
+    public void add(int position, long delta) {
+        for (int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Sum the values at positions [0, end)
+     * @param end Exclusive end position, clamped to [0, size]
+     * @return The prefix sum
+     */
+    public long prefixSum(int end) {
+        long sum = 0;
+        for (int i = Math.min(Math.max(end, 0), size()); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sum the values at positions [from, to]
+     * @param from First position (inclusive)
+     * @param to Last position (inclusive)
+     * @return The range sum, 0 if the range is empty
+     */
+    public long rangeSum(int from, int to) {
+        if (from > to) return 0;
+        return prefixSum(to + 1) - prefixSum(from);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.wondertrackxd.controller.data;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pushes change notifications for the data files in txtFiles to subscribed views
+ *
+ * A single WatchService thread watches the data directory. Bursts of events (an append, an atomic
+ * snapshot replace, several files written by one action) are coalesced for a short quiet period
+ * and delivered as one set of changed file names. Nothing runs while no file changes.
+ *
+ * Subscriptions are keyed: subscribing again with the same key replaces the previous listener,
+ * so a page that is reloaded on every navigation never accumulates stale listeners.
+ * Listeners run on the watcher thread; UI work must be handed to Platform.runLater.
+ */
+public class FileChangeNotifier {
+
+    private static final Logger logger = Logger.getLogger(FileChangeNotifier.class.getName());
+
+    // Watched directory
+    private static final String DATA_DIRECTORY = "src/main/resources/txtFiles";
+
+    // Data file names
+    public static final String ORDERS_FILE = "orders.txt";
+    public static final String ORDERS_JOURNAL_FILE = "orders.journal";
+    public static final String SALES_FILE = "sales.txt";
+    public static final String PRODUCTS_FILE = "products.txt";
+    public static final String CATEGORIES_FILE = "categories.txt";
+
+    // Quiet period used to coalesce bursts of events into one notification
+    private static final long COALESCE_MILLIS = 50;
+
+    // Singleton instance
+    private static FileChangeNotifier instance;
+
+    private final Path directory;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * A listener and the file names it is interested in
+     */
+    private record Subscription(Consumer<Set<String>> listener, Set<String> fileNames) {
+    }
+
+    private FileChangeNotifier(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get the singleton instance of FileChangeNotifier
+     * The first call starts the watcher thread
+     * @return The FileChangeNotifier instance
+     */
+    public static synchronized FileChangeNotifier getInstance() {
+        if (instance == null) {
+            instance = new FileChangeNotifier(Paths.get(DATA_DIRECTORY));
+            instance.start();
+        }
+        return instance;
+    }
+
+    /**
+     * Subscribe to changes of some data files, replacing any subscription with the same key
+     * @param key Identifies the subscriber (e.g. the view name)
+     * @param listener Receives the names of the changed files
+     * @param fileNames Data file names to watch
+     */
+    public void subscribe(String key, Consumer<Set<String>> listener, String... fileNames) {
+        subscriptions.put(key, new Subscription(listener, Set.of(fileNames)));
+        logger.info("📡 " + key + " subscribed to changes of " + Arrays.toString(fileNames));
+    }
+
+    /**
+     * Remove a subscription
+     * @param key The key used when subscribing
+     */
+    public void unsubscribe(String key) {
+        subscriptions.remove(key);
+    }
+
+    private void start() {
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+            Thread thread = new Thread(() -> watchLoop(watchService), "wondertrack-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+            logger.info("👀 Watching " + directory + " for data file changes");
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "❌ Could not start data file watcher", e);
+        }
+    }
+
+    private void watchLoop(WatchService watchService) {
+        try {
+            while (true) {
+                // Block until something changes, then keep collecting until the burst is over
+                Set<String> changed = new HashSet<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path path) {
+                            changed.add(path.getFileName().toString());
+                        }
+                    }
+                    if (!key.reset()) {
+                        logger.severe("❌ Data directory is no longer accessible, stopping file watcher");
+                        return;
+                    }
+                    key = watchService.poll(COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                dispatch(changed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(Set<String> changed) {
+        for (Map.Entry<String, Subscription> entry : subscriptions.entrySet()) {
+            Set<String> relevant = new HashSet<>(changed);
+            relevant.retainAll(entry.getValue().fileNames());
+            if (relevant.isEmpty()) continue;
+
+            try {
+                entry.getValue().listener().accept(relevant);
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "⚠️ Error notifying " + entry.getKey() + " of file changes", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.Order;
+import com.example.wondertrackxd.controller.model.OrderStatus;
+import com.example.wondertrackxd.controller.model.PaymentMethod;
+import com.example.wondertrackxd.controller.model.RecentOrder;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Status and payment-method bitmaps over one order snapshot
+ *
+ * Row numbers are positions in the snapshot returned by getOrders(). OrderRepository builds the
+ * index from the orders when it loads them, derives the index of the next snapshot from the current
+ * one when an order is created or edited, and updates the status bitmaps in place when a status
+ * change is saved, so status filters and counts never have to scan the orders.
+ */
+public class OrderBitmapIndex {
+
+    private final List<RecentOrder> orders;
+    private final EnumBitmapIndex<OrderStatus> statuses;
+    private final EnumBitmapIndex<PaymentMethod> paymentMethods;
+
+    // Position of every order counted from the end of the list, which stays the same when an order
+    // is inserted at the front; shared by the indexes derived from this one, and only used under
+    // the OrderRepository lock
+    private final Map<String, Integer> positionsFromEnd;
+
+    /**
+     * Build the index over a snapshot
+     * @param orders The snapshot; its positions become the row numbers
+     */
+    OrderBitmapIndex(List<RecentOrder> orders) {
+        this.orders = orders;
+        this.statuses = new EnumBitmapIndex<>(OrderStatus.class);
+        this.paymentMethods = new EnumBitmapIndex<>(PaymentMethod.class);
+        this.positionsFromEnd = new HashMap<>();
+        for (int row = 0; row < orders.size(); row++) {
+            RecentOrder recentOrder = orders.get(row);
+            Order order = recentOrder.getOrder();
+            positionsFromEnd.put(recentOrder.getOrderId(), orders.size() - 1 - row);
+            statuses.set(row, order.orderStatus());
+            paymentMethods.set(row, order.paymentMethod());
+        }
+    }
+
+    private OrderBitmapIndex(List<RecentOrder> orders, EnumBitmapIndex<OrderStatus> statuses,
+                             EnumBitmapIndex<PaymentMethod> paymentMethods, Map<String, Integer> positionsFromEnd) {
+        this.orders = orders;
+        this.statuses = statuses;
+        this.paymentMethods = paymentMethods;
+        this.positionsFromEnd = positionsFromEnd;
+    }
+
+    /**
+     * Derive the index of a snapshot that has one new order in front of this one's orders
+     * @param orders The new snapshot; its first order is the new one
+     * @return Index over the new snapshot; this index is left unchanged
+     */
+    OrderBitmapIndex withOrderAddedFirst(List<RecentOrder> orders) {
+        RecentOrder added = orders.get(0);
+        OrderBitmapIndex index = new OrderBitmapIndex(orders, statuses.copyWithRowInsertedFirst(),
+            paymentMethods.copyWithRowInsertedFirst(), positionsFromEnd);
+        index.statuses.set(0, added.getOrder().orderStatus());
+        index.paymentMethods.set(0, added.getOrder().paymentMethod());
+        positionsFromEnd.put(added.getOrderId(), orders.size() - 1);
+        return index;
+    }
+
+    /**
+     * Derive the index of a snapshot in which one order was replaced at the same position
+     * @param orders The new snapshot
+     * @param replaced The new version of the order
+     * @return Index over the new snapshot; this index is left unchanged
+     */
+    OrderBitmapIndex withOrderReplaced(List<RecentOrder> orders, RecentOrder replaced) {
+        OrderBitmapIndex index = new OrderBitmapIndex(orders, statuses.copy(), paymentMethods.copy(), positionsFromEnd);
+        int row = index.rowOf(replaced.getOrderId());
+        if (row >= 0) {
+            index.statuses.set(row, replaced.getOrder().orderStatus());
+            index.paymentMethods.set(row, replaced.getOrder().paymentMethod());
+        }
+        return index;
+    }
+
+    /**
+     * @return The snapshot this index describes; row numbers are positions in this list
+     */
+    public List<RecentOrder> getOrders() {
+        return orders;
+    }
+
+    /**
+     * Re-index the status of an order after it changed
+     * @param order The order whose status changed
+     * @return The status the order was indexed with, or null if it is not in this snapshot
+     */
+    OrderStatus updateStatus(RecentOrder order) {
+        int row = rowOf(order.getOrderId());
+        if (row < 0) return null;
+        return statuses.set(row, order.getOrder().orderStatus());
+    }
+
+    private int rowOf(String orderId) {
+        // Orders added after this snapshot have positions beyond its end
+        Integer fromEnd = positionsFromEnd.get(orderId);
+        if (fromEnd == null || fromEnd >= orders.size()) return -1;
+        return orders.size() - 1 - fromEnd;
+    }
+
+    /**
+     * @param accepted Accepted statuses
+     * @return New bitmap of the rows whose status is one of them
+     */
+    public BitSet rowsWithStatus(Set<OrderStatus> accepted) {
+        return statuses.rows(accepted);
+    }
+
+    /**
+     * @param accepted Accepted payment methods
+     * @return New bitmap of the rows paid with one of them
+     */
+    public BitSet rowsWithPaymentMethod(Set<PaymentMethod> accepted) {
+        return paymentMethods.rows(accepted);
+    }
+
+    /**
+     * Count orders with a status
+     * @param status The status
+     * @param mask Rows to count within, or null for all orders
+     * @return Number of matching orders
+     */
+    public int countWithStatus(OrderStatus status, BitSet mask) {
+        return statuses.count(status, mask);
+    }
+}
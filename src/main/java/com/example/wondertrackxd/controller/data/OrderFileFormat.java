@@ -0,0 +1,192 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.Order;
+import com.example.wondertrackxd.controller.model.OrderStatus;
+import com.example.wondertrackxd.controller.model.PaymentMethod;
+import com.example.wondertrackxd.controller.model.PaymentStatus;
+import com.example.wondertrackxd.controller.model.RecentOrder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads and writes the line format used by orders.txt
+ * Format: Order ID, Name, Contact Number, Items Ordered, Total Items, Total Amount,
+ * Payment Method, Date and Time, Status, Reference Number, Timestamp
+ */
+public final class OrderFileFormat {
+
+    private static final Logger logger = Logger.getLogger(OrderFileFormat.class.getName());
+
+    /**
+     * Header comment written at the top of every orders.txt snapshot
+     */
+    public static final String HEADER = "# Format: Order ID, Name, Contact Number, Items Ordered, Total Items, Total Amount, Payment Method, Date and Time, Status, Reference Number, Timestamp";
+
+    private OrderFileFormat() {
+    }
+
+    /**
+     * Check whether a raw line carries order data (not blank and not a comment)
+     * @param line Raw line from orders.txt
+     * @return true if the line should be parsed
+     */
+    public static boolean isDataLine(String line) {
+        if (line == null) return false;
+        String trimmed = line.trim();
+        return !trimmed.isEmpty() && !trimmed.startsWith("#");
+    }
+
+    /**
+     * Parse a single order line into a RecentOrder
+     * Handles old (8 fields), with contact (9 fields), digital payment (10 fields) and current (11 fields) layouts
+     * @param line Raw line from orders.txt
+     * @return RecentOrder or null if the line is malformed
+     */
+    public static RecentOrder parseOrderLine(String line) {
+        return parseOrderLine(line, new CsvTokenizer());
+    }
+
+    /**
+     * Parse a single order line reusing the caller's tokenizer (for loading many lines)
+     * @param line Raw line from orders.txt
+     * @param tokenizer Tokenizer to reuse
+     * @return RecentOrder or null if the line is malformed
+     */
+    public static RecentOrder parseOrderLine(String line, CsvTokenizer tokenizer) {
+        try {
+            int size = tokenizer.tokenize(line);
+
+            if (size < 8) return null;
+
+            if (size >= 11) {
+                // New format with contact number and digital payment details
+                return newOrder(
+                    tokenizer.field(0), tokenizer.field(1), tokenizer.field(2),
+                    tokenizer.field(3), tokenizer.field(4), tokenizer.field(5),
+                    tokenizer.field(6), tokenizer.field(7), tokenizer.field(8),
+                    RecentOrder.determinePaymentStatusFromOrderStatus(tokenizer.field(8)),
+                    tokenizer.field(9), tokenizer.field(10)
+                );
+            } else if (size >= 10) {
+                // Old format with digital payment details but no contact number
+                return newOrder(
+                    tokenizer.field(0), tokenizer.field(1), "", tokenizer.field(2),
+                    tokenizer.field(3), tokenizer.field(4), tokenizer.field(5),
+                    tokenizer.field(6), tokenizer.field(7),
+                    RecentOrder.determinePaymentStatusFromOrderStatus(tokenizer.field(7)),
+                    tokenizer.field(8), tokenizer.field(9)
+                );
+            } else if (size >= 9) {
+                // Format with contact number but no digital payment details
+                return newOrder(
+                    tokenizer.field(0), tokenizer.field(1), tokenizer.field(2),
+                    tokenizer.field(3), tokenizer.field(4), tokenizer.field(5),
+                    tokenizer.field(6), tokenizer.field(7), tokenizer.field(8),
+                    RecentOrder.determinePaymentStatusFromOrderStatus(tokenizer.field(8)), "", ""
+                );
+            } else {
+                // Old format without contact number and digital payment details
+                return newOrder(
+                    tokenizer.field(0), tokenizer.field(1), "", tokenizer.field(2),
+                    tokenizer.field(3), tokenizer.field(4), tokenizer.field(5),
+                    tokenizer.field(6), tokenizer.field(7),
+                    RecentOrder.determinePaymentStatusFromOrderStatus(tokenizer.field(7)), "", ""
+                );
+            }
+
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Error parsing order line: " + line, e);
+            return null;
+        }
+    }
+
+    /**
+     * Create an order from the text of its fields, parsing its typed values once
+     * Line items are resolved against ProductCatalog and the date with parseOrderDateTime
+     * @param orderId Unique order identifier (e.g., "WP20250624-001")
+     * @param name Customer name who placed the order
+     * @param contactNumber Customer contact number
+     * @param itemsOrdered Items text (e.g., "3x Spicy tunasaur; 4x Oreo-verload")
+     * @param totalItems Total number of items in the order
+     * @param totalAmount Total amount of the order (e.g., "₱315.00")
+     * @param paymentMethod Payment method used (e.g., "Cash", "GCash", "Maya")
+     * @param orderDate Date and time the order was placed
+     * @param orderStatus Order workflow status (e.g., "Pending", "Completed")
+     * @param paymentStatus Payment status (e.g., "Unpaid", "Paid")
+     * @param referenceNumber Reference number for digital payments (empty string for cash)
+     * @param timestamp Timestamp for digital payments, or cash received for cash payments
+     * @return The order
+     */
+    public static RecentOrder newOrder(String orderId, String name, String contactNumber, String itemsOrdered,
+                                       String totalItems, String totalAmount, String paymentMethod, String orderDate,
+                                       String orderStatus, String paymentStatus, String referenceNumber,
+                                       String timestamp) {
+        String contact = contactNumber != null ? contactNumber : "";
+        String reference = referenceNumber != null ? referenceNumber : "";
+        String time = timestamp != null ? timestamp : "";
+        Order order = new Order(orderId, name, contact, itemsOrdered,
+            ProductCatalog.getInstance().parseItems(itemsOrdered), parseCount(totalItems),
+            Order.parseCentavos(totalAmount), PaymentMethod.fromLabel(paymentMethod), parseOrderDateTime(orderDate),
+            OrderStatus.fromLabel(orderStatus), PaymentStatus.fromLabel(paymentStatus), reference, time);
+        return new RecentOrder(orderId, name, contact, itemsOrdered, totalItems, totalAmount, paymentMethod,
+            orderDate, orderStatus, paymentStatus, reference, time, order);
+    }
+
+    /**
+     * Format a RecentOrder back to the orders.txt line format
+     * @param order The order to format
+     * @return Formatted line ready for the file
+     */
+    public static String formatOrderLine(RecentOrder order) {
+        return String.format("%s,%s,%s,\"%s\",%s,%s,%s,\"%s\",%s,\"%s\",\"%s\"",
+            order.getOrderId(),
+            order.getName(),
+            order.getContactNumber(),
+            order.getItemsOrdered(),
+            order.getTotalItems(),
+            order.getTotalAmount(),
+            order.getPaymentMethod(),
+            order.getOrderDate(),
+            order.getStatus(),
+            order.getReferenceNumber(),
+            order.getTimestamp()
+        );
+    }
+
+    /**
+     * Parse order date from the formats accepted by DateTimeParser ("Jan 26, 2025 3:45 PM", MM/DD/YYYY, ISO)
+     * @param dateTimeStr The date string to parse
+     * @return LocalDate if parsing successful, current date as fallback
+     */
+    public static LocalDate parseOrderDate(String dateTimeStr) {
+        return parseOrderDateTime(dateTimeStr).toLocalDate();
+    }
+
+    /**
+     * Parse order date and time from the same formats as parseOrderDate
+     * Date-only values resolve to the start of the day
+     * @param dateTimeStr The date string to parse
+     * @return LocalDateTime if parsing successful, start of the current day as fallback
+     */
+    public static LocalDateTime parseOrderDateTime(String dateTimeStr) {
+        LocalDateTime dateTime = DateTimeParser.parse(dateTimeStr);
+        if (dateTime != null) return dateTime;
+
+        if (dateTimeStr != null && !dateTimeStr.isBlank()) {
+            logger.warning("⚠️ Could not parse date format: " + dateTimeStr);
+        }
+        return LocalDate.now().atStartOfDay(); // Fallback to current date
+    }
+
+    private static int parseCount(String count) {
+        if (count == null) return 0;
+        try {
+            return Integer.parseInt(count.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
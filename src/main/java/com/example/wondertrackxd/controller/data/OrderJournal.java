@@ -0,0 +1,413 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.RecentOrder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only journal of order events backed by orders.txt as the snapshot
+ *
+ * Every create, status change, payment status change and edit is appended as one line to
+ * orders.journal instead of rewriting orders.txt. Replaying the snapshot followed by the journal
+ * rebuilds the current order set, and a background compaction folds the journal back into
+ * orders.txt so the journal stays short.
+ *
+ * Journal line format: TYPE|Order ID|payload
+ * - CREATE / EDIT: payload is a full orders.txt line, followed by a PAYMENT_STATUS event when the
+ *   order's payment status differs from the one derived from its order status
+ * - STATUS / PAYMENT_STATUS: payload is the new status value
+ *
+ * The journal also remembers how far it has been read (byte offset plus the identity of both
+ * files) so readAppendedEvents() can return only lines appended by another process since the
+ * last replay, without re-reading the whole history.
+ */
+public class OrderJournal {
+
+    private static final Logger logger = Logger.getLogger(OrderJournal.class.getName());
+
+    // File paths
+    private static final String SNAPSHOT_FILE = "src/main/resources/txtFiles/orders.txt";
+    private static final String JOURNAL_FILE = "src/main/resources/txtFiles/orders.journal";
+
+    // How often the background compactor folds the journal into the snapshot
+    private static final long COMPACTION_INTERVAL_SECONDS = 60;
+
+    /**
+     * Kinds of order events recorded in the journal
+     */
+    public enum EventType {
+        CREATE, STATUS, PAYMENT_STATUS, EDIT
+    }
+
+    // Singleton instance
+    private static OrderJournal instance;
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Object lock = new Object();
+
+    // Journal size right after the last compaction (only carried-over events), used to skip no-op runs
+    private long compactedJournalSize = 0;
+
+    // Tail position: journal bytes already reflected in the last replay, plus the file identities it was read from
+    private long journalOffset = 0;
+    private Object journalKey;
+    private FileState snapshotState;
+
+    /**
+     * Identity and size of a file, used to detect truncation or replacement
+     */
+    private record FileState(Object key, long size, long lastModified) {
+    }
+
+    /**
+     * Create a journal over the given snapshot and journal files
+     * @param snapshotPath Path of orders.txt
+     * @param journalPath Path of orders.journal
+     */
+    OrderJournal(Path snapshotPath, Path journalPath) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = journalPath;
+    }
+
+    /**
+     * Get the singleton instance of OrderJournal
+     * The first call also schedules the background compactor
+     * @return The OrderJournal instance
+     */
+    public static synchronized OrderJournal getInstance() {
+        if (instance == null) {
+            instance = new OrderJournal(Paths.get(SNAPSHOT_FILE), Paths.get(JOURNAL_FILE));
+            BackgroundCompactor.schedule("orders.journal", instance::compact, COMPACTION_INTERVAL_SECONDS);
+        }
+        return instance;
+    }
+
+    /**
+     * Record a newly created order
+     * @param order The new order
+     * @return true if the event was appended successfully
+     */
+    public boolean appendCreate(RecentOrder order) {
+        return append(EventType.CREATE, order.getOrderId(), OrderFileFormat.formatOrderLine(order))
+            && appendUnderivedPaymentStatus(order);
+    }
+
+    /**
+     * Record an edit that replaces the stored fields of an existing order
+     * The orders.txt line has no payment status column, so replaying it derives the payment status
+     * from the order status; a payment status that differs from that is recorded right after as a
+     * PAYMENT_STATUS event, as compaction does.
+     * @param order The order with its updated values
+     * @return true if the events were appended successfully
+     */
+    public boolean appendEdit(RecentOrder order) {
+        return append(EventType.EDIT, order.getOrderId(), OrderFileFormat.formatOrderLine(order))
+            && appendUnderivedPaymentStatus(order);
+    }
+
+    /**
+     * Record an order status change using the order's current status
+     * @param order The order whose status changed
+     * @return true if the event was appended successfully
+     */
+    public boolean appendStatusChange(RecentOrder order) {
+        return append(EventType.STATUS, order.getOrderId(), order.getOrderStatus());
+    }
+
+    /**
+     * Record a payment status change using the order's current payment status
+     * @param order The order whose payment status changed
+     * @return true if the event was appended successfully
+     */
+    public boolean appendPaymentStatusChange(RecentOrder order) {
+        return append(EventType.PAYMENT_STATUS, order.getOrderId(), order.getPaymentStatus());
+    }
+
+    /**
+     * Record the payment status of an order just written as an orders.txt line, if replaying that
+     * line would not derive the same value
+     * @return true if nothing was needed or the event was appended successfully
+     */
+    private boolean appendUnderivedPaymentStatus(RecentOrder order) {
+        String derived = RecentOrder.determinePaymentStatusFromOrderStatus(order.getOrderStatus());
+        return derived.equals(order.getPaymentStatus()) || appendPaymentStatusChange(order);
+    }
+
+    /**
+     * Append a single event line to the journal - O(1) regardless of order history size
+     */
+    private boolean append(EventType type, String orderId, String payload) {
+        String line = type.name() + "|" + orderId + "|" + payload + System.lineSeparator();
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        synchronized (lock) {
+            try {
+                Files.createDirectories(journalPath.getParent());
+                boolean tailCurrent = Files.exists(journalPath)
+                    ? Files.size(journalPath) == journalOffset && Objects.equals(fileKey(journalPath), journalKey)
+                    : journalOffset == 0;
+                Files.write(journalPath, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+                // Our own event is already applied in memory, so skip it when tailing
+                if (tailCurrent) {
+                    journalOffset += bytes.length;
+                    journalKey = fileKey(journalPath);
+                }
+                return true;
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "❌ Error appending " + type + " event for order " + orderId, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Rebuild the current order set from the snapshot plus every journaled event
+     * Orders are returned newest-created first, matching the orders.txt layout
+     * @return The replayed orders
+     */
+    public List<RecentOrder> replay() {
+        synchronized (lock) {
+            try {
+                return replayLocked();
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "❌ Error replaying order journal", e);
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    private List<RecentOrder> replayLocked() throws IOException {
+        List<String> snapshotIds = new ArrayList<>();
+        List<String> createdIds = new ArrayList<>();
+        Map<String, RecentOrder> ordersById = new HashMap<>();
+        CsvTokenizer tokenizer = new CsvTokenizer();
+
+        if (Files.exists(snapshotPath)) {
+            for (String line : Files.readAllLines(snapshotPath, StandardCharsets.UTF_8)) {
+                if (!OrderFileFormat.isDataLine(line)) continue;
+                RecentOrder order = OrderFileFormat.parseOrderLine(line, tokenizer);
+                if (order != null && ordersById.put(order.getOrderId(), order) == null) {
+                    snapshotIds.add(order.getOrderId());
+                }
+            }
+        }
+
+        int applied = 0;
+        snapshotState = fileState(snapshotPath);
+        journalOffset = 0;
+        journalKey = null;
+        if (Files.exists(journalPath)) {
+            byte[] journalBytes = Files.readAllBytes(journalPath);
+            journalOffset = journalBytes.length;
+            journalKey = fileKey(journalPath);
+            for (String line : new String(journalBytes, StandardCharsets.UTF_8).split("\\R")) {
+                if (line.isBlank()) continue;
+                if (applyEvent(line, ordersById, createdIds, tokenizer)) {
+                    applied++;
+                }
+            }
+        }
+
+        List<RecentOrder> orders = new ArrayList<>(ordersById.size());
+        for (int i = createdIds.size() - 1; i >= 0; i--) {
+            orders.add(ordersById.get(createdIds.get(i)));
+        }
+        for (String orderId : snapshotIds) {
+            orders.add(ordersById.get(orderId));
+        }
+
+        logger.info("📜 Replayed " + orders.size() + " orders (" + applied + " journal events)");
+        return orders;
+    }
+
+    /**
+     * Read the journal lines appended since the last replay or tail read
+     * Only complete lines are returned; a partially written last line is picked up next time.
+     * @return The new event lines (empty if nothing changed), or null if orders.txt was replaced or
+     *         the journal was truncated or rewritten and a full replay is needed
+     */
+    public List<String> readAppendedEvents() {
+        synchronized (lock) {
+            try {
+                if (!Objects.equals(fileState(snapshotPath), snapshotState)) {
+                    return null;
+                }
+                if (!Files.exists(journalPath)) {
+                    return journalOffset == 0 ? new ArrayList<>() : null;
+                }
+
+                long size = Files.size(journalPath);
+                if (size < journalOffset || (journalOffset > 0 && !Objects.equals(fileKey(journalPath), journalKey))) {
+                    return null;
+                }
+                if (size == journalOffset) {
+                    return new ArrayList<>();
+                }
+
+                byte[] bytes = new byte[(int) (size - journalOffset)];
+                try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    long position = journalOffset;
+                    while (buffer.hasRemaining()) {
+                        int read = channel.read(buffer, position);
+                        if (read < 0) break;
+                        position += read;
+                    }
+                }
+
+                // Stop at the last complete line
+                int end = bytes.length;
+                while (end > 0 && bytes[end - 1] != '\n') end--;
+                if (end == 0) {
+                    return new ArrayList<>();
+                }
+
+                List<String> lines = new ArrayList<>();
+                for (String line : new String(bytes, 0, end, StandardCharsets.UTF_8).split("\\R")) {
+                    if (!line.isBlank()) lines.add(line);
+                }
+                journalOffset += end;
+                journalKey = fileKey(journalPath);
+                return lines;
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "⚠️ Error reading appended journal events, falling back to full replay", e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Apply one journal line to a replay state (orders by ID plus the IDs created by the journal)
+     * Orders in the map are never modified; every event stores a new instance under the order ID,
+     * so the map may hold orders from a published snapshot.
+     * @return true if the event was understood and applied
+     */
+    boolean applyEvent(String line, Map<String, RecentOrder> ordersById, List<String> createdIds,
+                               CsvTokenizer tokenizer) {
+        String[] parts = line.split("\\|", 3);
+        if (parts.length < 3) {
+            logger.warning("⚠️ Skipping malformed journal line: " + line);
+            return false;
+        }
+
+        try {
+            EventType type = EventType.valueOf(parts[0]);
+            String orderId = parts[1];
+            String payload = parts[2];
+
+            switch (type) {
+                case CREATE, EDIT -> {
+                    RecentOrder order = OrderFileFormat.parseOrderLine(payload, tokenizer);
+                    if (order == null) return false;
+                    if (ordersById.put(orderId, order) == null) {
+                        createdIds.add(orderId);
+                    }
+                }
+                case STATUS -> {
+                    // Change a copy: the order may belong to a live snapshot bound to the UI
+                    RecentOrder order = ordersById.get(orderId);
+                    if (order == null) return false;
+                    RecentOrder changed = order.copy();
+                    changed.setOrderStatus(payload);
+                    ordersById.put(orderId, changed);
+                }
+                case PAYMENT_STATUS -> {
+                    RecentOrder order = ordersById.get(orderId);
+                    if (order == null) return false;
+                    RecentOrder changed = order.copy();
+                    changed.setPaymentStatus(payload);
+                    ordersById.put(orderId, changed);
+                }
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            logger.warning("⚠️ Unknown journal event: " + line);
+            return false;
+        }
+    }
+
+    /**
+     * Fold the journal into a fresh orders.txt snapshot and truncate the journal
+     * The snapshot is written to a temporary file and moved into place atomically.
+     * Payment statuses that differ from the value derived from the order status are carried
+     * over as journal events because orders.txt has no payment status column.
+     */
+    public void compact() {
+        synchronized (lock) {
+            try {
+                if (!Files.exists(journalPath) || Files.size(journalPath) == compactedJournalSize) {
+                    return;
+                }
+
+                // The caller's in-memory state stays valid only if it had already seen every event
+                boolean tailCurrent = Objects.equals(fileState(snapshotPath), snapshotState)
+                    && Files.size(journalPath) == journalOffset;
+
+                List<RecentOrder> orders = replayLocked();
+
+                List<String> snapshotLines = new ArrayList<>(orders.size() + 1);
+                List<String> carriedEvents = new ArrayList<>();
+                snapshotLines.add(OrderFileFormat.HEADER);
+                for (RecentOrder order : orders) {
+                    snapshotLines.add(OrderFileFormat.formatOrderLine(order));
+                    String derived = RecentOrder.determinePaymentStatusFromOrderStatus(order.getOrderStatus());
+                    if (!derived.equals(order.getPaymentStatus())) {
+                        carriedEvents.add(EventType.PAYMENT_STATUS.name() + "|" + order.getOrderId() + "|" + order.getPaymentStatus());
+                    }
+                }
+
+                Path tempSnapshot = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+                Files.write(tempSnapshot, snapshotLines, StandardCharsets.UTF_8);
+                Files.move(tempSnapshot, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                Files.write(journalPath, carriedEvents, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+                compactedJournalSize = Files.size(journalPath);
+
+                if (tailCurrent) {
+                    snapshotState = fileState(snapshotPath);
+                    journalOffset = compactedJournalSize;
+                    journalKey = fileKey(journalPath);
+                } else {
+                    // Force the next tail read to request a full replay
+                    snapshotState = null;
+                }
+
+                logger.info("🗜️ Compacted order journal into snapshot: " + orders.size() + " orders");
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "❌ Error compacting order journal", e);
+            }
+        }
+    }
+
+    private static FileState fileState(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Object key = attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+        return new FileState(key, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    private static Object fileKey(Path path) throws IOException {
+        FileState state = fileState(path);
+        return state == null ? null : state.key();
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.OrderStatus;
+import com.example.wondertrackxd.controller.model.RecentOrder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide owner of the canonical in-memory order set
+ *
+ * orders.txt and the order journal are parsed once on first access. Every controller reads the
+ * same read-only snapshot, so switching pages costs no file I/O. All order mutations go through
+ * this class, which records them in the OrderJournal and publishes a new snapshot.
+ */
+public class OrderRepository {
+
+    private static final Logger logger = Logger.getLogger(OrderRepository.class.getName());
+
+    /**
+     * Newest orders first: by order date, then by the order ID sequence number (highest first)
+     */
+    public static final Comparator<RecentOrder> NEWEST_FIRST = (o1, o2) -> {
+        // First compare by date (newest first)
+        LocalDate date1 = o1.getOrder().orderDate();
+        LocalDate date2 = o2.getOrder().orderDate();
+        int dateComparison = date2.compareTo(date1);
+
+        if (dateComparison != 0) {
+            return dateComparison;
+        }
+
+        // If same date, sort by order ID sequence (e.g., "001" from "WP20250624-001")
+        String orderId1 = o1.getOrderId();
+        String orderId2 = o2.getOrderId();
+        try {
+            int num1 = Integer.parseInt(orderId1.substring(orderId1.lastIndexOf('-') + 1));
+            int num2 = Integer.parseInt(orderId2.substring(orderId2.lastIndexOf('-') + 1));
+            return Integer.compare(num2, num1);
+        } catch (Exception e) {
+            // Fallback to string comparison if parsing fails
+            return orderId2.compareTo(orderId1);
+        }
+    };
+
+    // Singleton instance
+    private static OrderRepository instance;
+
+    private final OrderJournal journal;
+
+    // Substring index over order ID, name and items, kept in step with the snapshot
+    private final OrderSearchIndex searchIndex = new OrderSearchIndex();
+
+    // Current read-only snapshot, replaced (never modified) on every change
+    private volatile List<RecentOrder> snapshot;
+
+    // Status and payment-method bitmaps over the current snapshot
+    private volatile OrderBitmapIndex bitmapIndex;
+
+    // Daily order counts and revenue by status and payment method over the current snapshot
+    private volatile DailyRollup orderRollup;
+
+    // Incremented on every change so readers can tell whether their copy is stale
+    private volatile long version = 0;
+
+    /**
+     * Create a repository backed by the given order journal
+     * @param journal The journal used for loading and recording changes
+     */
+    OrderRepository(OrderJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Get the singleton instance of OrderRepository
+     * @return The OrderRepository instance
+     */
+    public static synchronized OrderRepository getInstance() {
+        if (instance == null) {
+            instance = new OrderRepository(OrderJournal.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Get the current orders, newest first
+     * The list is read-only and never changes; later updates publish a new list
+     * @return Read-only snapshot of all orders
+     */
+    public List<RecentOrder> getOrders() {
+        List<RecentOrder> current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    loadLocked();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Get the search index over the current orders, loading the orders first if needed
+     * @return The order search index
+     */
+    public OrderSearchIndex getSearchIndex() {
+        getOrders();
+        return searchIndex;
+    }
+
+    /**
+     * Get the status and payment-method bitmaps over the current snapshot, loading the orders first if needed
+     * Its getOrders() is the snapshot the row numbers refer to.
+     * @return The order bitmap index
+     */
+    public OrderBitmapIndex getBitmapIndex() {
+        getOrders();
+        return bitmapIndex;
+    }
+
+    /**
+     * Get the daily order rollup over the current snapshot, loading the orders first if needed
+     * @return The order rollup, keyed by order date
+     */
+    public DailyRollup getOrderRollup() {
+        getOrders();
+        return orderRollup;
+    }
+
+    /**
+     * Get the version of the current snapshot
+     * @return A number that increases every time the order set changes
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Pick up changes written to the order files by another process
+     * Only journal lines appended since the last read are parsed; orders.txt is replayed in full
+     * only when it was replaced or the journal was truncated or rewritten.
+     * @return true if the order set changed
+     */
+    public synchronized boolean refresh() {
+        if (snapshot == null) {
+            loadLocked();
+            return true;
+        }
+
+        List<String> events = journal.readAppendedEvents();
+        if (events == null) {
+            logger.info("🔄 Order files were rewritten, reloading all orders");
+            loadLocked();
+            return true;
+        }
+        if (events.isEmpty()) {
+            return false;
+        }
+
+        Map<String, RecentOrder> ordersById = new HashMap<>();
+        for (RecentOrder order : snapshot) {
+            ordersById.put(order.getOrderId(), order);
+        }
+        List<String> createdIds = new ArrayList<>();
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        for (String event : events) {
+            journal.applyEvent(event, ordersById, createdIds, tokenizer);
+        }
+
+        // Swap in the new instances of changed orders, then insert new orders at their sorted position
+        List<RecentOrder> updated = new ArrayList<>(snapshot.size() + createdIds.size());
+        for (RecentOrder order : snapshot) {
+            RecentOrder current = ordersById.get(order.getOrderId());
+            if (current != order) {
+                searchIndex.put(current);
+            }
+            updated.add(current);
+        }
+        for (String orderId : createdIds) {
+            RecentOrder order = ordersById.get(orderId);
+            searchIndex.put(order);
+            int index = Collections.binarySearch(updated, order, NEWEST_FIRST);
+            updated.add(index < 0 ? -index - 1 : index, order);
+        }
+        publish(updated);
+
+        logger.info("📜 Applied " + events.size() + " appended journal events");
+        return true;
+    }
+
+    /**
+     * Re-read orders.txt and the journal from disk, discarding the cached snapshot
+     */
+    public synchronized void reload() {
+        loadLocked();
+    }
+
+    /**
+     * Record a newly created order and add it to the snapshot
+     * @param order The new order
+     * @return true if the order was saved successfully
+     */
+    public synchronized boolean addOrder(RecentOrder order) {
+        if (!journal.appendCreate(order)) {
+            return false;
+        }
+        List<RecentOrder> updated = new ArrayList<>(getOrders().size() + 1);
+        updated.add(order);
+        updated.addAll(getOrders());
+        searchIndex.put(order);
+        orderRollup.addOrder(order.getOrder());
+        List<RecentOrder> published = Collections.unmodifiableList(updated);
+        publish(published, bitmapIndex.withOrderAddedFirst(published), orderRollup);
+        return true;
+    }
+
+    /**
+     * Record an edit and replace the order with the same ID in the snapshot
+     * @param order The order with its updated values
+     * @return true if the edit was saved successfully
+     */
+    public synchronized boolean updateOrder(RecentOrder order) {
+        if (!journal.appendEdit(order)) {
+            return false;
+        }
+        List<RecentOrder> updated = new ArrayList<>(getOrders());
+        for (int i = 0; i < updated.size(); i++) {
+            RecentOrder existing = updated.get(i);
+            if (existing.getOrderId().equals(order.getOrderId())) {
+                orderRollup.removeOrder(existing.getOrder());
+                orderRollup.addOrder(order.getOrder());
+                updated.set(i, order);
+            }
+        }
+        searchIndex.put(order);
+        List<RecentOrder> published = Collections.unmodifiableList(updated);
+        publish(published, bitmapIndex.withOrderReplaced(published, order), orderRollup);
+        return true;
+    }
+
+    /**
+     * Record a status change already applied to an order from the snapshot
+     * @param order The order whose status changed
+     * @return true if the change was saved successfully
+     */
+    public synchronized boolean saveStatusChange(RecentOrder order) {
+        if (!journal.appendStatusChange(order)) {
+            return false;
+        }
+        OrderStatus previous = bitmapIndex.updateStatus(order);
+        if (previous != null) {
+            orderRollup.changeOrderStatus(order.getOrder(), previous);
+        }
+        version++;
+        return true;
+    }
+
+    /**
+     * Record a payment status change already applied to an order from the snapshot
+     * @param order The order whose payment status changed
+     * @return true if the change was saved successfully
+     */
+    public synchronized boolean savePaymentStatusChange(RecentOrder order) {
+        if (!journal.appendPaymentStatusChange(order)) {
+            return false;
+        }
+        version++;
+        return true;
+    }
+
+    private void loadLocked() {
+        List<RecentOrder> orders = journal.replay();
+        orders.sort(NEWEST_FIRST);
+        searchIndex.rebuild(orders);
+        publish(orders);
+        logger.info("📦 Order repository loaded " + orders.size() + " orders (sorted newest first)");
+    }
+
+    /**
+     * Publish a new snapshot, building its bitmap index and rollup from the orders
+     * @param orders The new order list
+     */
+    private void publish(List<RecentOrder> orders) {
+        List<RecentOrder> published = Collections.unmodifiableList(orders);
+        publish(published, new OrderBitmapIndex(published), DailyRollup.ofOrders(published));
+    }
+
+    /**
+     * Publish a new snapshot with an index and rollup already brought up to date for the change
+     * @param published The new read-only order list
+     * @param index Bitmap index over exactly that list
+     * @param rollup Order rollup of the list
+     */
+    private void publish(List<RecentOrder> published, OrderBitmapIndex index, DailyRollup rollup) {
+        bitmapIndex = index;
+        orderRollup = rollup;
+        snapshot = published;
+        version++;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.RecentOrder;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over the searchable text of every order (order ID, customer name, items ordered)
+ *
+ * Each order gets a document number and a lower-cased copy of its searchable fields. Every
+ * three-character sequence of that text has a posting bitmap of the documents containing it. A
+ * search intersects the postings of the query's trigrams and then confirms each candidate with
+ * String.contains, so results match a case-insensitive "field contains query" scan exactly.
+ *
+ * The index is kept up to date by OrderRepository as orders are loaded, created and edited.
+ */
+public class OrderSearchIndex {
+
+    // Separates the fields so a match never spans two of them (the query is never empty or multi-line)
+    private static final char FIELD_SEPARATOR = '\n';
+
+    private final Map<String, Integer> documentsByOrderId = new HashMap<>();
+    private final List<String> orderIds = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private final Map<Long, BitSet> postings = new HashMap<>();
+
+    /**
+     * Replace the whole index with the given orders
+     * @param orders All orders
+     */
+    public synchronized void rebuild(List<RecentOrder> orders) {
+        documentsByOrderId.clear();
+        orderIds.clear();
+        texts.clear();
+        postings.clear();
+        for (RecentOrder order : orders) {
+            put(order);
+        }
+    }
+
+    /**
+     * Add an order, or re-index it if an order with the same ID is already indexed
+     * @param order The created or edited order
+     */
+    public synchronized void put(RecentOrder order) {
+        String text = searchableText(order);
+        Integer document = documentsByOrderId.get(order.getOrderId());
+        if (document == null) {
+            document = texts.size();
+            documentsByOrderId.put(order.getOrderId(), document);
+            orderIds.add(order.getOrderId());
+            texts.add(text);
+        } else {
+            String previous = texts.get(document);
+            if (previous.equals(text)) return;
+            for (int i = 0; i + 3 <= previous.length(); i++) {
+                BitSet posting = postings.get(trigram(previous, i));
+                if (posting != null) posting.clear(document);
+            }
+            texts.set(document, text);
+        }
+
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            postings.computeIfAbsent(trigram(text, i), key -> new BitSet()).set(document);
+        }
+    }
+
+    /**
+     * Find the orders whose ID, customer name or items contain the query
+     * Queries shorter than three characters have no trigram and scan the cached lower-case text.
+     * @param query Lower-cased, trimmed search text
+     * @return IDs of the matching orders
+     */
+    public synchronized Set<String> search(String query) {
+        Set<String> matches = new HashSet<>();
+        if (query.length() < 3) {
+            for (int document = 0; document < texts.size(); document++) {
+                if (texts.get(document).contains(query)) {
+                    matches.add(orderIds.get(document));
+                }
+            }
+            return matches;
+        }
+
+        BitSet candidates = null;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            BitSet posting = postings.get(trigram(query, i));
+            if (posting == null) return matches;
+            if (candidates == null) {
+                candidates = (BitSet) posting.clone();
+            } else {
+                candidates.and(posting);
+            }
+            if (candidates.isEmpty()) return matches;
+        }
+
+        for (int document = candidates.nextSetBit(0); document >= 0; document = candidates.nextSetBit(document + 1)) {
+            if (texts.get(document).contains(query)) {
+                matches.add(orderIds.get(document));
+            }
+        }
+        return matches;
+    }
+
+    private static String searchableText(RecentOrder order) {
+        return lower(order.getOrderId()) + FIELD_SEPARATOR + lower(order.getName()) + FIELD_SEPARATOR
+            + lower(order.getItemsOrdered());
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.LineItem;
+import com.example.wondertrackxd.controller.model.Order;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide product dictionary and price list
+ *
+ * Every product name seen in products.txt or in an order/sale line item gets a small, stable int ID
+ * (names are matched ignoring case), so per-product aggregation can index a plain int array.
+ * Prices come from products.txt and are reloaded when that file changes; products that are not on
+ * the menu (deleted or misspelled) fall back to DEFAULT_PRICE_CENTAVOS, as the receipts always did.
+ */
+public class ProductCatalog {
+
+    private static final Logger logger = Logger.getLogger(ProductCatalog.class.getName());
+
+    // File path
+    private static final String PRODUCTS_FILE = "src/main/resources/txtFiles/products.txt";
+
+    /**
+     * Unit price used for products without a price in products.txt (₱45.00)
+     */
+    public static final long DEFAULT_PRICE_CENTAVOS = 4500;
+
+    // Singleton instance
+    private static ProductCatalog instance;
+
+    private final Path productsPath;
+
+    // ID by lower-cased name, and name / price by ID (-1 = no menu price)
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private long[] prices = new long[16];
+
+    /**
+     * Create a catalog over the given products file
+     * @param productsPath Path of products.txt
+     */
+    ProductCatalog(Path productsPath) {
+        this.productsPath = productsPath;
+        reloadPrices();
+    }
+
+    /**
+     * Get the singleton instance of ProductCatalog
+     * The first call loads products.txt and subscribes to its changes
+     * @return The ProductCatalog instance
+     */
+    public static synchronized ProductCatalog getInstance() {
+        if (instance == null) {
+            instance = new ProductCatalog(Paths.get(PRODUCTS_FILE));
+            ProductCatalog catalog = instance;
+            FileChangeNotifier.getInstance().subscribe("product-catalog", changed -> catalog.reloadPrices(),
+                FileChangeNotifier.PRODUCTS_FILE);
+        }
+        return instance;
+    }
+
+    /**
+     * Get the ID of a product, assigning a new one for a name not seen before
+     * @param name Product name
+     * @return Product ID (0 to size() - 1)
+     */
+    public synchronized int idOf(String name) {
+        String clean = name == null ? "" : name.trim();
+        Integer id = ids.get(clean.toLowerCase(Locale.ROOT));
+        if (id != null) return id;
+
+        id = names.size();
+        ids.put(clean.toLowerCase(Locale.ROOT), id);
+        names.add(clean);
+        if (id >= prices.length) {
+            prices = Arrays.copyOf(prices, prices.length * 2);
+        }
+        prices[id] = -1;
+        return id;
+    }
+
+    /**
+     * @param id Product ID
+     * @return Product name as first seen
+     */
+    public synchronized String nameOf(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * @param id Product ID
+     * @return Current menu price in centavos, or DEFAULT_PRICE_CENTAVOS if the product is not on the menu
+     */
+    public synchronized long priceCentavos(int id) {
+        long price = prices[id];
+        return price < 0 ? DEFAULT_PRICE_CENTAVOS : price;
+    }
+
+    /**
+     * @return Number of product IDs assigned so far; an array of this size can be indexed by any ID
+     */
+    public synchronized int size() {
+        return names.size();
+    }
+
+    /**
+     * Parse an items string such as "3x Spicy tunasaur; 4x Oreo-verload"
+     * Also accepts the legacy "Spicy tunasaur x3" form and an explicit "@ ₱55.00 each" unit price;
+     * without one, the current menu price is used.
+     * @param items Items text of an order or sale
+     * @return Parsed line items, empty if the text is blank
+     */
+    public List<LineItem> parseItems(String items) {
+        if (items == null || items.isBlank()) return List.of();
+
+        List<LineItem> parsed = new ArrayList<>();
+        for (String item : items.split(";")) {
+            item = item.trim();
+            if (item.isEmpty()) continue;
+
+            long unitPrice = -1;
+            int at = item.indexOf('@');
+            if (at >= 0) {
+                unitPrice = Order.parseCentavos(item.substring(at + 1).replace("each", ""));
+                item = item.substring(0, at).trim();
+            }
+
+            String name = item;
+            int quantity = 1;
+            int x = item.indexOf('x');
+            if (x > 0 && isCount(item.substring(0, x))) {
+                // "3x Spicy tunasaur"
+                quantity = Integer.parseInt(item.substring(0, x).trim());
+                name = item.substring(x + 1).trim();
+            } else {
+                int lastX = item.lastIndexOf(" x");
+                if (lastX > 0 && isCount(item.substring(lastX + 2))) {
+                    // "Spicy tunasaur x3"
+                    quantity = Integer.parseInt(item.substring(lastX + 2).trim());
+                    name = item.substring(0, lastX).trim();
+                }
+            }
+
+            int productId = idOf(name);
+            parsed.add(new LineItem(productId, nameOf(productId), quantity,
+                unitPrice > 0 ? unitPrice : priceCentavos(productId)));
+        }
+        return List.copyOf(parsed);
+    }
+
+    /**
+     * Re-read menu prices from products.txt
+     * IDs already assigned never change; products removed from the menu lose their price
+     */
+    public void reloadPrices() {
+        List<String> lines;
+        try {
+            lines = Files.exists(productsPath) ? Files.readAllLines(productsPath) : List.of();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "⚠️ Could not read product prices", e);
+            return;
+        }
+
+        synchronized (this) {
+            Arrays.fill(prices, -1);
+            for (String line : lines) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split("\\|");
+                if (parts.length == 4) {
+                    long price = Order.parseCentavos(parts[3]);
+                    // idOf may grow the prices array, so it must run before the array is read
+                    int id = idOf(parts[1]);
+                    prices[id] = price;
+                }
+            }
+        }
+    }
+
+    private static boolean isCount(String text) {
+        String clean = text.trim();
+        if (clean.isEmpty() || clean.length() > 9) return false;
+        for (int i = 0; i < clean.length(); i++) {
+            if (!Character.isDigit(clean.charAt(i))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.SalesRecord;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sales sorted by sale date, for date-range filtering
+ *
+ * Each sale's date is parsed once, when the index is built, into an epoch day. A from/to date
+ * range then resolves by binary search to one contiguous slice, so filters only look at the sales
+ * inside the range. Sales with the same date keep their original order; sales whose date cannot
+ * be parsed are left out, since they never match a date range.
+ */
+public class SalesDateIndex {
+
+    private final List<SalesRecord> source;
+    private final int sourceSize;
+
+    // Sales in date order, and the epoch day of each
+    private final SalesRecord[] sales;
+    private final long[] epochDays;
+
+    /**
+     * Build the index over a list of sales
+     * @param source All sales
+     */
+    public SalesDateIndex(List<SalesRecord> source) {
+        this.source = source;
+        this.sourceSize = source.size();
+
+        // Sort (epoch day, position) pairs packed into one long; the position keeps the sort stable
+        long[] keys = new long[sourceSize];
+        int count = 0;
+        for (int i = 0; i < sourceSize; i++) {
+            LocalDateTime dateTime = DateTimeParser.parse(source.get(i).getSaleDateTime());
+            if (dateTime != null) {
+                keys[count++] = (dateTime.toLocalDate().toEpochDay() << 32) | i;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+
+        sales = new SalesRecord[count];
+        epochDays = new long[count];
+        for (int i = 0; i < count; i++) {
+            sales[i] = source.get((int) keys[i]);
+            epochDays[i] = keys[i] >> 32;
+        }
+    }
+
+    /**
+     * Check whether this index still reflects a sales list
+     * @param sales The current sales list
+     * @return true if it is the list the index was built from and its size has not changed
+     */
+    public boolean isCurrentFor(List<SalesRecord> sales) {
+        return sales == source && sales.size() == sourceSize;
+    }
+
+    /**
+     * Get the sales made within a date range
+     * @param from First day (inclusive), or null for no lower bound
+     * @param to Last day (inclusive), or null for no upper bound
+     * @return Read-only view of the matching sales, oldest first
+     */
+    public List<SalesRecord> between(LocalDate from, LocalDate to) {
+        int start = from == null ? 0 : firstIndexOnOrAfter(from.toEpochDay());
+        int end = to == null ? sales.length : firstIndexOnOrAfter(to.toEpochDay() + 1);
+        if (start >= end) return List.of();
+
+        return new AbstractList<>() {
+            @Override
+            public SalesRecord get(int index) {
+                return sales[start + Objects.checkIndex(index, end - start)];
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    /**
+     * @return Index of the first sale on or after the given day (sales.length if none)
+     */
+    private int firstIndexOnOrAfter(long epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
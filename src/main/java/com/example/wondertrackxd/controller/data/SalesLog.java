@@ -0,0 +1,246 @@
+package com.example.wondertrackxd.controller.data;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only access to sales.txt with tombstone-based deletion
+ *
+ * Removing a sale appends a tombstone line keyed by order ID instead of rewriting the file.
+ * A tombstone hides every sale for that order that appears before it, so a sale recorded again
+ * after the tombstone (order completed a second time) stays visible. Hidden sales and tombstones
+ * are physically dropped by compact(), which MainApp runs once at startup before any view reads or
+ * watches sales.txt: rewriting the file while the app runs would make every subscriber of the file
+ * watcher reload for no visible change.
+ *
+ * Tombstone line format: DELETED,Order ID
+ */
+public class SalesLog {
+
+    private static final Logger logger = Logger.getLogger(SalesLog.class.getName());
+
+    // File path
+    private static final String SALES_FILE = "src/main/resources/txtFiles/sales.txt";
+
+    // Prefix marking a tombstone line
+    private static final String TOMBSTONE_PREFIX = "DELETED,";
+
+    // Singleton instance
+    private static SalesLog instance;
+
+    private final Path salesPath;
+    private final Object lock = new Object();
+
+    /**
+     * Create a sales log over the given sales file
+     * @param salesPath Path of sales.txt
+     */
+    SalesLog(Path salesPath) {
+        this.salesPath = salesPath;
+    }
+
+    /**
+     * Get the singleton instance of SalesLog
+     * @return The SalesLog instance
+     */
+    public static synchronized SalesLog getInstance() {
+        if (instance == null) {
+            instance = new SalesLog(Paths.get(SALES_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * Check whether the sales file exists
+     * @return true if sales.txt is present
+     */
+    public boolean exists() {
+        return Files.exists(salesPath);
+    }
+
+    /**
+     * Get the current size of sales.txt, used with getLastModified() to detect changes
+     * @return Size in bytes, or -1 if the file does not exist
+     */
+    public long getFileSize() {
+        try {
+            return Files.size(salesPath);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Get the last-modified time of sales.txt
+     * @return Time in milliseconds, or -1 if the file does not exist
+     */
+    public long getLastModified() {
+        try {
+            return Files.getLastModifiedTime(salesPath).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Read every visible sale line, skipping comments and tombstoned sales
+     * @return Raw sale lines in file order
+     * @throws IOException if the file cannot be read
+     */
+    public List<String> readSaleLines() throws IOException {
+        synchronized (lock) {
+            if (!Files.exists(salesPath)) {
+                return new ArrayList<>();
+            }
+            List<String> lines = Files.readAllLines(salesPath, StandardCharsets.UTF_8);
+
+            List<String> visible = new ArrayList<>();
+            for (String line : resolve(lines)) {
+                if (!isCommentOrBlank(line)) {
+                    visible.add(line);
+                }
+            }
+            return visible;
+        }
+    }
+
+    /**
+     * Read every sale line still in the file, including sales hidden by a tombstone
+     * Used where removed sales still count, such as recovering the highest sale ID ever issued
+     * @return Raw sale lines in file order, without comments and tombstones
+     * @throws IOException if the file cannot be read
+     */
+    public List<String> readAllSaleLines() throws IOException {
+        synchronized (lock) {
+            if (!Files.exists(salesPath)) {
+                return new ArrayList<>();
+            }
+            List<String> sales = new ArrayList<>();
+            for (String line : Files.readAllLines(salesPath, StandardCharsets.UTF_8)) {
+                if (!isCommentOrBlank(line) && !isTombstone(line)) {
+                    sales.add(line);
+                }
+            }
+            return sales;
+        }
+    }
+
+    /**
+     * Append a sale line to the end of sales.txt
+     * @param salesLine Formatted sale line
+     * @return true if the line was appended successfully
+     */
+    public boolean appendSale(String salesLine) {
+        return append(salesLine);
+    }
+
+    /**
+     * Append a tombstone hiding every earlier sale for the given order - O(1) regardless of file size
+     * @param orderId The order whose sale is removed
+     * @return true if the tombstone was appended successfully
+     */
+    public boolean appendTombstone(String orderId) {
+        return append(TOMBSTONE_PREFIX + orderId);
+    }
+
+    private boolean append(String line) {
+        synchronized (lock) {
+            try {
+                Files.write(salesPath, (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                return true;
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "❌ Error appending to sales file: " + line, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Rewrite sales.txt without tombstones and the sales they hide
+     * Comment lines are kept. The new file is written to a temporary file and moved into place atomically;
+     * the file is left untouched if it has no tombstones. Meant to run at startup, before the file is watched.
+     */
+    public void compact() {
+        synchronized (lock) {
+            try {
+                if (!Files.exists(salesPath)) {
+                    return;
+                }
+
+                List<String> lines = Files.readAllLines(salesPath, StandardCharsets.UTF_8);
+                if (lines.stream().noneMatch(SalesLog::isTombstone)) {
+                    return;
+                }
+
+                List<String> kept = resolve(lines);
+                Path tempFile = salesPath.resolveSibling(salesPath.getFileName() + ".tmp");
+                Files.write(tempFile, kept, StandardCharsets.UTF_8);
+                Files.move(tempFile, salesPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                logger.info("🗜️ Compacted sales file: removed " + (lines.size() - kept.size()) + " tombstoned lines");
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "❌ Error compacting sales file", e);
+            }
+        }
+    }
+
+    /**
+     * Drop tombstones and every sale line hidden by a later tombstone
+     * The last tombstone position per order is collected first, then each sale is kept only if no tombstone follows it.
+     */
+    private static List<String> resolve(List<String> lines) {
+        Map<String, Integer> lastTombstone = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (isTombstone(line)) {
+                lastTombstone.put(line.trim().substring(TOMBSTONE_PREFIX.length()).trim(), i);
+            }
+        }
+        if (lastTombstone.isEmpty()) {
+            return lines;
+        }
+
+        List<String> kept = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (isTombstone(line)) continue;
+            if (!isCommentOrBlank(line)) {
+                Integer tombstoneIndex = lastTombstone.get(orderIdOf(line));
+                if (tombstoneIndex != null && tombstoneIndex > i) continue;
+            }
+            kept.add(line);
+        }
+        return kept;
+    }
+
+    private static boolean isTombstone(String line) {
+        return line.trim().startsWith(TOMBSTONE_PREFIX);
+    }
+
+    private static boolean isCommentOrBlank(String line) {
+        String trimmed = line.trim();
+        return trimmed.isEmpty() || trimmed.startsWith("#");
+    }
+
+    /**
+     * Extract the Order ID (second field) of a sale line
+     */
+    private static String orderIdOf(String line) {
+        int first = line.indexOf(',');
+        if (first < 0) return "";
+        int second = line.indexOf(',', first + 1);
+        return (second < 0 ? line.substring(first + 1) : line.substring(first + 1, second)).trim();
+    }
+}
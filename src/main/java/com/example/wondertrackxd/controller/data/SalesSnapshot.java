@@ -0,0 +1,293 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.LineItem;
+import com.example.wondertrackxd.controller.model.SalesRecord;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only, memory-mapped columnar copy of the sales history
+ *
+ * sales.txt stays the interchange format; this binary file is a derived cache so analytics can
+ * scan primitives directly instead of re-tokenizing text. Each sale is one row; values are stored
+ * column by column so a scan only touches the columns it needs.
+ *
+ * Layout (big-endian):
+ * - header: magic, format version, source size, source last-modified, row count, item count
+ * - dictionaries: payment methods, products, contact numbers (count, then length + UTF-8 bytes each)
+ * - columns: epoch-minute sale time (long), amount in centavos (long), payment method ID (int),
+ *   contact ID (int), item offsets (int, rowCount + 1), item product IDs (int), item quantities (int)
+ *
+ * The source size and last-modified time identify the sales.txt the snapshot was built from.
+ */
+public final class SalesSnapshot {
+
+    private static final Logger logger = Logger.getLogger(SalesSnapshot.class.getName());
+
+    private static final int MAGIC = 0x57545353; // "WTSS"
+    private static final int FORMAT_VERSION = 2; // 2: products from parsed LineItems
+
+    /**
+     * Sale time used for rows whose date could not be parsed; never inside a real date range
+     */
+    public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    private final MappedByteBuffer buffer;
+    private final long sourceSize;
+    private final long sourceLastModified;
+    private final int rowCount;
+    private final int itemCount;
+    private final String[] paymentMethods;
+    private final String[] products;
+    private final String[] contacts;
+
+    // Absolute byte offsets of each column in the mapped file
+    private final int timeColumn;
+    private final int amountColumn;
+    private final int paymentColumn;
+    private final int contactColumn;
+    private final int itemOffsetColumn;
+    private final int productColumn;
+    private final int quantityColumn;
+
+    private SalesSnapshot(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("Not a sales snapshot or unsupported version");
+        }
+        sourceSize = buffer.getLong();
+        sourceLastModified = buffer.getLong();
+        rowCount = buffer.getInt();
+        itemCount = buffer.getInt();
+        paymentMethods = readDictionary(buffer);
+        products = readDictionary(buffer);
+        contacts = readDictionary(buffer);
+
+        timeColumn = buffer.position();
+        amountColumn = timeColumn + rowCount * Long.BYTES;
+        paymentColumn = amountColumn + rowCount * Long.BYTES;
+        contactColumn = paymentColumn + rowCount * Integer.BYTES;
+        itemOffsetColumn = contactColumn + rowCount * Integer.BYTES;
+        productColumn = itemOffsetColumn + (rowCount + 1) * Integer.BYTES;
+        quantityColumn = productColumn + itemCount * Integer.BYTES;
+
+        if (quantityColumn + (long) itemCount * Integer.BYTES != buffer.capacity()) {
+            throw new IOException("Sales snapshot is truncated or corrupt");
+        }
+    }
+
+    /**
+     * Map an existing snapshot file
+     * @param path Path of the snapshot
+     * @return The mapped snapshot
+     * @throws IOException if the file is missing, unreadable or not a valid snapshot
+     */
+    public static SalesSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new SalesSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write a snapshot of the given sales and map it
+     * The file is written to a temporary file and moved into place atomically. If the move fails
+     * (the previous snapshot is still mapped on some platforms) the temporary file is used instead.
+     * @param path Path of the snapshot
+     * @param sales Sales records to store
+     * @param sourceSize Size of the sales.txt the records came from
+     * @param sourceLastModified Last-modified time (millis) of that sales.txt
+     * @return The mapped snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static SalesSnapshot write(Path path, List<SalesRecord> sales, long sourceSize, long sourceLastModified) throws IOException {
+        int rows = sales.size();
+        long[] times = new long[rows];
+        long[] amounts = new long[rows];
+        int[] paymentIds = new int[rows];
+        int[] contactIds = new int[rows];
+        int[] itemOffsets = new int[rows + 1];
+        List<int[]> items = new ArrayList<>();
+
+        Map<String, Integer> paymentDictionary = new LinkedHashMap<>();
+        Map<String, Integer> productDictionary = new LinkedHashMap<>();
+        Map<String, Integer> contactDictionary = new LinkedHashMap<>();
+
+        for (int row = 0; row < rows; row++) {
+            SalesRecord sale = sales.get(row);
+            times[row] = parseEpochMinute(sale.getSaleDateTime());
+            amounts[row] = sale.getSaleAmountCentavos();
+            paymentIds[row] = encode(paymentDictionary, sale.getPaymentMethod());
+            contactIds[row] = encode(contactDictionary, sale.getContactNumber());
+
+            itemOffsets[row] = items.size();
+            for (LineItem item : sale.getLineItems()) {
+                items.add(new int[]{encode(productDictionary, item.productName()), item.quantity()});
+            }
+        }
+        itemOffsets[rows] = items.size();
+
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(sourceSize);
+            out.writeLong(sourceLastModified);
+            out.writeInt(rows);
+            out.writeInt(items.size());
+            writeDictionary(out, paymentDictionary);
+            writeDictionary(out, productDictionary);
+            writeDictionary(out, contactDictionary);
+            for (long time : times) out.writeLong(time);
+            for (long amount : amounts) out.writeLong(amount);
+            for (int id : paymentIds) out.writeInt(id);
+            for (int id : contactIds) out.writeInt(id);
+            for (int offset : itemOffsets) out.writeInt(offset);
+            for (int[] item : items) out.writeInt(item[0]);
+            for (int[] item : items) out.writeInt(item[1]);
+        }
+
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "⚠️ Could not replace sales snapshot, using temporary copy", e);
+            return open(tempPath);
+        }
+        return open(path);
+    }
+
+    /**
+     * Check whether this snapshot was built from the sales.txt with the given size and time
+     * @param size Current size of sales.txt
+     * @param lastModified Current last-modified time (millis) of sales.txt
+     * @return true if the snapshot matches the file
+     */
+    public boolean isBuiltFrom(long size, long lastModified) {
+        return sourceSize == size && sourceLastModified == lastModified;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Sale time as minutes since 1970-01-01T00:00 (local wall-clock time), or UNKNOWN_TIME
+     */
+    public long getEpochMinute(int row) {
+        return buffer.getLong(timeColumn + row * Long.BYTES);
+    }
+
+    /**
+     * Sale amount in centavos
+     */
+    public long getAmountCentavos(int row) {
+        return buffer.getLong(amountColumn + row * Long.BYTES);
+    }
+
+    public int getPaymentMethodId(int row) {
+        return buffer.getInt(paymentColumn + row * Integer.BYTES);
+    }
+
+    public int getContactId(int row) {
+        return buffer.getInt(contactColumn + row * Integer.BYTES);
+    }
+
+    /**
+     * Index of the first line item of a row (items of row r are itemStart(r) to itemStart(r + 1))
+     */
+    public int getItemStart(int row) {
+        return buffer.getInt(itemOffsetColumn + row * Integer.BYTES);
+    }
+
+    public int getProductId(int item) {
+        return buffer.getInt(productColumn + item * Integer.BYTES);
+    }
+
+    public int getQuantity(int item) {
+        return buffer.getInt(quantityColumn + item * Integer.BYTES);
+    }
+
+    public String getPaymentMethod(int id) {
+        return paymentMethods[id];
+    }
+
+    public String getProductName(int id) {
+        return products[id];
+    }
+
+    public String getContactNumber(int id) {
+        return contacts[id];
+    }
+
+    public int getProductCount() {
+        return products.length;
+    }
+
+    public int getContactCount() {
+        return contacts.length;
+    }
+
+    /**
+     * Convert a date to the first epoch minute of that day
+     * @param date The date
+     * @return Epoch minute at 00:00 of the date
+     */
+    public static long startOfDayMinute(LocalDate date) {
+        return date.toEpochDay() * 24 * 60;
+    }
+
+    /**
+     * Convert an epoch minute back to its calendar date
+     * @param epochMinute Minutes since 1970-01-01T00:00
+     * @return The date
+     */
+    public static LocalDate toDate(long epochMinute) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochMinute, 24 * 60));
+    }
+
+    private static long parseEpochMinute(String dateTime) {
+        LocalDateTime parsed = DateTimeParser.parse(dateTime);
+        return parsed == null ? UNKNOWN_TIME : parsed.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static int encode(Map<String, Integer> dictionary, String value) {
+        return dictionary.computeIfAbsent(value == null ? "" : value, key -> dictionary.size());
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String[] readDictionary(MappedByteBuffer buffer) {
+        String[] values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.wondertrackxd.controller.data;
+
+import com.example.wondertrackxd.controller.model.RecentOrder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Hands out sale IDs (S001, S002, ...) and order IDs (WPyyyyMMdd-001, ...) in constant time
+ *
+ * The counters live in a small sequence file: the global sale counter and the order counter of
+ * the most recent order day. Each allocation locks the file, reads the counters, increments one
+ * and writes them back before releasing the lock, so two application windows never receive the
+ * same ID. The contents carry a checksum; a missing or damaged file (e.g. a write torn by a crash)
+ * is rebuilt from the highest IDs found in sales.txt and the order repository.
+ *
+ * File format: SALE,lastSaleNumber / DAY,yyyyMMdd,lastOrderNumber / CRC,checksum of the lines above
+ */
+public class SequenceAllocator {
+
+    private static final Logger logger = Logger.getLogger(SequenceAllocator.class.getName());
+
+    // File path
+    private static final String SEQUENCE_FILE = "src/main/resources/txtFiles/sequence.txt";
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    // Singleton instance
+    private static SequenceAllocator instance;
+
+    private final Path sequencePath;
+
+    // Last counters written, used if the sequence file cannot be accessed
+    private int lastSaleNumber = -1;
+    private String day = "";
+    private int lastOrderNumber = 0;
+
+    /**
+     * Create an allocator over the given sequence file
+     * @param sequencePath Path of the sequence file
+     */
+    SequenceAllocator(Path sequencePath) {
+        this.sequencePath = sequencePath;
+    }
+
+    /**
+     * Get the singleton instance of SequenceAllocator
+     * @return The SequenceAllocator instance
+     */
+    public static synchronized SequenceAllocator getInstance() {
+        if (instance == null) {
+            instance = new SequenceAllocator(Paths.get(SEQUENCE_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * Allocate the next sale ID
+     * @return Sale ID such as S045
+     */
+    public synchronized String nextSaleId() {
+        allocate(false, null);
+        return String.format("S%03d", lastSaleNumber);
+    }
+
+    /**
+     * Allocate the next order ID of a day, starting from 001 for the first order of the day
+     * @param date The order date
+     * @return Order ID such as WP20250709-002
+     */
+    public synchronized String nextOrderId(LocalDate date) {
+        String orderDay = date.format(DAY_FORMAT);
+        allocate(true, orderDay);
+        return String.format("WP%s-%03d", orderDay, lastOrderNumber);
+    }
+
+    /**
+     * Lock the sequence file, load the counters, advance one of them and write them back
+     */
+    private void allocate(boolean order, String orderDay) {
+        try (FileChannel channel = FileChannel.open(sequencePath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+
+            if (!readCounters(channel)) {
+                recoverCounters();
+            }
+            advance(order, orderDay);
+            writeCounters(channel);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "❌ Error accessing sequence file, continuing from in-memory counters", e);
+            if (lastSaleNumber < 0) {
+                recoverCounters();
+            }
+            advance(order, orderDay);
+        }
+    }
+
+    private void advance(boolean order, String orderDay) {
+        if (!order) {
+            lastSaleNumber++;
+        } else if (orderDay.equals(day)) {
+            lastOrderNumber++;
+        } else if (orderDay.compareTo(day) > 0) {
+            day = orderDay;
+            lastOrderNumber = 1;
+        } else {
+            // An earlier day than the last one recorded: only the latest day is kept in the file
+            lastOrderNumber = highestOrderNumber(orderDay) + 1;
+            logger.warning("⚠️ Allocating order ID for past day " + orderDay + " from existing orders");
+        }
+    }
+
+    private boolean readCounters(FileChannel channel) throws IOException {
+        if (channel.size() == 0) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.read(buffer, 0);
+        String[] lines = new String(buffer.array(), StandardCharsets.UTF_8).split("\\R");
+
+        try {
+            if (lines.length < 3 || !lines[2].startsWith("CRC,")
+                    || Long.parseLong(lines[2].substring(4)) != checksum(lines[0] + "\n" + lines[1])) {
+                logger.warning("⚠️ Sequence file is damaged, recovering counters from data files");
+                return false;
+            }
+            String[] sale = lines[0].split(",");
+            String[] orders = lines[1].split(",");
+            lastSaleNumber = Integer.parseInt(sale[1]);
+            day = orders[1];
+            lastOrderNumber = Integer.parseInt(orders[2]);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warning("⚠️ Sequence file is unreadable, recovering counters from data files");
+            return false;
+        }
+    }
+
+    private void writeCounters(FileChannel channel) throws IOException {
+        String body = "SALE," + lastSaleNumber + "\n" + "DAY," + day + "," + lastOrderNumber;
+        byte[] bytes = (body + "\nCRC," + checksum(body) + "\n").getBytes(StandardCharsets.UTF_8);
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(bytes), 0);
+        channel.force(true);
+    }
+
+    /**
+     * Rebuild the counters from the highest sale ID in sales.txt and the latest order day
+     * Sales hidden by a tombstone are scanned too, so a removed sale's ID is not issued again
+     */
+    private void recoverCounters() {
+        lastSaleNumber = 0;
+        try {
+            CsvTokenizer tokenizer = new CsvTokenizer();
+            for (String line : SalesLog.getInstance().readAllSaleLines()) {
+                tokenizer.tokenize(line);
+                lastSaleNumber = Math.max(lastSaleNumber, sequenceNumber(tokenizer.field(0), "S"));
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "⚠️ Could not read sales while recovering the sale counter", e);
+        }
+
+        day = "";
+        lastOrderNumber = 0;
+        for (RecentOrder order : OrderRepository.getInstance().getOrders()) {
+            String orderId = order.getOrderId();
+            int dash = orderId.indexOf('-');
+            if (!orderId.startsWith("WP") || dash < 0) continue;
+            String orderDay = orderId.substring(2, dash);
+            int number = sequenceNumber(orderId.substring(dash + 1), "");
+            if (orderDay.compareTo(day) > 0) {
+                day = orderDay;
+                lastOrderNumber = number;
+            } else if (orderDay.equals(day)) {
+                lastOrderNumber = Math.max(lastOrderNumber, number);
+            }
+        }
+        logger.info("🔢 Recovered ID counters: last sale S" + lastSaleNumber + ", day " + day + " order " + lastOrderNumber);
+    }
+
+    private static int highestOrderNumber(String orderDay) {
+        String prefix = "WP" + orderDay + "-";
+        int highest = 0;
+        List<RecentOrder> orders = OrderRepository.getInstance().getOrders();
+        for (RecentOrder order : orders) {
+            if (order.getOrderId().startsWith(prefix)) {
+                highest = Math.max(highest, sequenceNumber(order.getOrderId().substring(prefix.length()), ""));
+            }
+        }
+        return highest;
+    }
+
+    private static int sequenceNumber(String id, String prefix) {
+        if (!id.startsWith(prefix)) return 0;
+        try {
+            return Integer.parseInt(id.substring(prefix.length()).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
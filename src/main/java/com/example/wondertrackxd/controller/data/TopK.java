@@ -0,0 +1,98 @@
+package com.example.wondertrackxd.controller.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Partial sort: the first k items of a list in sorted order, using a bounded heap
+ *
+ * Showing the first page of a large list sorted by amount only needs the top few rows; keeping the
+ * k best items seen so far in a heap costs O(n log k) instead of sorting all n items. Ties keep
+ * their original order, so the result equals the first k items of a stable List.sort.
+ */
+public final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * Check whether a partial sort is worth it for a page of a list
+     * @param size Number of items in the list
+     * @param k Number of leading items needed
+     * @return true if k is small compared to size; otherwise a full sort is about as fast
+     */
+    public static boolean isWorthwhile(int size, int k) {
+        return k > 0 && (long) k * 8 < size;
+    }
+
+    /**
+     * Select the first k items of a list in the given order
+     * @param items Items to select from (not modified)
+     * @param k Number of items to return
+     * @param order Sort order
+     * @return The min(k, items.size()) first items, sorted
+     */
+    public static <T> List<T> select(List<T> items, int k, Comparator<? super T> order) {
+        int limit = Math.min(k, items.size());
+        if (limit <= 0) return new ArrayList<>();
+
+        // Max-heap of item positions: the root is the worst of the best items kept so far
+        Comparator<Integer> byOrder = (a, b) -> {
+            int comparison = order.compare(items.get(a), items.get(b));
+            return comparison != 0 ? comparison : Integer.compare(a, b);
+        };
+        int[] heap = new int[limit];
+        int size = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (size < limit) {
+                heap[size] = i;
+                siftUp(heap, size++, byOrder);
+            } else if (byOrder.compare(i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, size, byOrder);
+            }
+        }
+
+        // Drain the heap from worst to best
+        List<T> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(null);
+        }
+        while (size > 0) {
+            result.set(size - 1, items.get(heap[0]));
+            heap[0] = heap[--size];
+            siftDown(heap, size, byOrder);
+        }
+        return result;
+    }
+
+    private static void siftUp(int[] heap, int index, Comparator<Integer> byOrder) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (byOrder.compare(heap[index], heap[parent]) <= 0) return;
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Comparator<Integer> byOrder) {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && byOrder.compare(heap[left], heap[largest]) > 0) largest = left;
+            if (right < size && byOrder.compare(heap[right], heap[largest]) > 0) largest = right;
+            if (largest == index) return;
+            swap(heap, index, largest);
+            index = largest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+}
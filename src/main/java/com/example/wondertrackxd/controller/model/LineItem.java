@@ -0,0 +1,55 @@
+package com.example.wondertrackxd.controller.model;
+
+import java.util.List;
+
+/**
+ * One parsed line of an order or sale, e.g. "3x Spicy tunasaur"
+ *
+ * The items text of an order is parsed once into these values (see ProductCatalog.parseItems), so
+ * charts, receipts and totals walk a list of product IDs and quantities instead of re-splitting the
+ * text. Product IDs come from ProductCatalog and can index a per-product array directly; the product
+ * name is resolved when the item is parsed.
+ */
+public record LineItem(int productId, String productName, int quantity, long unitPriceCentavos) {
+
+    /**
+     * @return Line total (quantity * unit price) in centavos
+     */
+    public long totalCentavos() {
+        return quantity * unitPriceCentavos;
+    }
+
+    /**
+     * @return Unit price in pesos, for display
+     */
+    public double unitPrice() {
+        return unitPriceCentavos / 100.0;
+    }
+
+    /**
+     * @return Line total in pesos, for display
+     */
+    public double total() {
+        return totalCentavos() / 100.0;
+    }
+
+    /**
+     * @return Item display string (e.g., "2x Eggmayoza"), the format stored in the data files
+     */
+    public String getDisplayString() {
+        return quantity + "x " + productName();
+    }
+
+    /**
+     * Sum the line totals of a list of items
+     * @param items Line items
+     * @return Total in centavos
+     */
+    public static long totalCentavos(List<LineItem> items) {
+        long total = 0;
+        for (LineItem item : items) {
+            total += item.totalCentavos();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.wondertrackxd.controller.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Immutable, typed order values parsed once when an order is loaded or created
+ *
+ * Amounts are whole centavos, the order time is a LocalDateTime (plus an epoch-minute key for
+ * sorting), the items text is split into LineItems and statuses are enums, so comparators,
+ * filters and KPIs work on primitives instead of re-parsing display strings. RecentOrder wraps
+ * this value for JavaFX binding and keeps the original text of every field for display and for
+ * writing orders.txt back unchanged. OrderFileFormat.newOrder parses the text fields.
+ */
+public record Order(
+        String orderId,
+        String customerName,
+        String contactNumber,
+        String itemsOrdered,
+        List<LineItem> items,
+        int totalItems,
+        long amountCentavos,
+        PaymentMethod paymentMethod,
+        LocalDateTime orderDateTime,
+        OrderStatus orderStatus,
+        PaymentStatus paymentStatus,
+        String referenceNumber,
+        String timestamp) {
+
+    /**
+     * @return Calendar date of the order
+     */
+    public LocalDate orderDate() {
+        return orderDateTime.toLocalDate();
+    }
+
+    /**
+     * @return Order time as minutes since 1970-01-01T00:00 (local wall-clock time)
+     */
+    public long epochMinute() {
+        return orderDateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    /**
+     * @return Total amount in pesos, for display and charting
+     */
+    public double amount() {
+        return amountCentavos / 100.0;
+    }
+
+    public Order withOrderStatus(OrderStatus status) {
+        return new Order(orderId, customerName, contactNumber, itemsOrdered, items, totalItems, amountCentavos,
+            paymentMethod, orderDateTime, status, paymentStatus, referenceNumber, timestamp);
+    }
+
+    public Order withPaymentStatus(PaymentStatus status) {
+        return new Order(orderId, customerName, contactNumber, itemsOrdered, items, totalItems, amountCentavos,
+            paymentMethod, orderDateTime, orderStatus, status, referenceNumber, timestamp);
+    }
+
+    /**
+     * Parse a peso amount such as "₱1,315.00" into centavos
+     * @param amount Amount text
+     * @return Amount in centavos, 0 if the text is not a number
+     */
+    public static long parseCentavos(String amount) {
+        if (amount == null) return 0;
+        try {
+            return new BigDecimal(amount.replace("₱", "").replace(",", "").trim()).movePointRight(2).longValue();
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
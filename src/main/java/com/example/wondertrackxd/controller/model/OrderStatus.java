@@ -0,0 +1,42 @@
+package com.example.wondertrackxd.controller.model;
+
+/**
+ * Order workflow status
+ * Each value keeps the label used in orders.txt and the UI
+ */
+public enum OrderStatus {
+    PENDING("Pending"),
+    IN_PROGRESS("In Progress"),
+    COMPLETED("Completed"),
+    CANCELLED("Cancelled"),
+    UNKNOWN("");
+
+    private final String label;
+
+    OrderStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return Label shown in the UI and stored in orders.txt
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Look up a status by its label, ignoring case and accepting "In-Progress"
+     * @param label Status text
+     * @return The matching status, or UNKNOWN
+     */
+    public static OrderStatus fromLabel(String label) {
+        if (label == null) return UNKNOWN;
+        String clean = label.trim().replace('-', ' ');
+        for (OrderStatus status : values()) {
+            if (status != UNKNOWN && status.label.equalsIgnoreCase(clean)) {
+                return status;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.wondertrackxd.controller.model;
+
+/**
+ * Payment method of an order or sale
+ * Each value keeps the label used in the data files and the UI
+ */
+public enum PaymentMethod {
+    CASH("Cash"),
+    GCASH("GCash"),
+    MAYA("Maya"),
+    OTHER("");
+
+    private final String label;
+
+    PaymentMethod(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return Label shown in the UI and stored in the data files
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return true for the digital wallets that carry a reference number
+     */
+    public boolean isDigital() {
+        return this == GCASH || this == MAYA;
+    }
+
+    /**
+     * Look up a payment method by its label, ignoring case
+     * @param label Payment method text
+     * @return The matching payment method, or OTHER
+     */
+    public static PaymentMethod fromLabel(String label) {
+        if (label == null) return OTHER;
+        String clean = label.trim();
+        for (PaymentMethod method : values()) {
+            if (method != OTHER && method.label.equalsIgnoreCase(clean)) {
+                return method;
+            }
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.wondertrackxd.controller.model;
+
+/**
+ * Payment status of an order
+ * Each value keeps the label used in the UI and the order journal
+ */
+public enum PaymentStatus {
+    UNPAID("Unpaid"),
+    PAID("Paid"),
+    FAILED("Failed"),
+    REFUNDED("Refunded"),
+    UNKNOWN("");
+
+    private final String label;
+
+    PaymentStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return Label shown in the UI
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Look up a payment status by its label, ignoring case
+     * @param label Payment status text
+     * @return The matching payment status, or UNKNOWN
+     */
+    public static PaymentStatus fromLabel(String label) {
+        if (label == null) return UNKNOWN;
+        String clean = label.trim();
+        for (PaymentStatus status : values()) {
+            if (status != UNKNOWN && status.label.equalsIgnoreCase(clean)) {
+                return status;
+            }
+        }
+        return UNKNOWN;
+    }
+}
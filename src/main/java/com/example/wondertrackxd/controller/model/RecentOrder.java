@@ -3,11 +3,17 @@ package com.example.wondertrackxd.controller.model;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Model class representing a recent order in the system
  * Contains all relevant order information for display in the MFX TableView
  * Uses JavaFX StringProperty for data binding with UI components
  * Updated to support separate Order Status and Payment Status tracking
+ *
+ * The text values are parsed once into a typed Order (see getOrder()); sorting, filtering and
+ * aggregation should use the typed values instead of parsing the display strings again.
  */
 public class RecentOrder {
     
@@ -25,8 +31,11 @@ public class RecentOrder {
     private final StringProperty referenceNumber; // Reference number for digital payments (Maya/GCash)
     private final StringProperty timestamp;     // Timestamp for digital payments (Maya/GCash)
 
+    // Typed values parsed from the properties above, replaced when a status changes
+    private volatile Order order;
+
     /**
-     * Main constructor with both order status and payment status
+     * Create an order from the text of its fields and their typed values
      * @param orderId Unique order identifier (e.g., "WP20250624-001")
      * @param name Customer name who placed the order
      * @param contactNumber Customer contact number
@@ -39,10 +48,11 @@ public class RecentOrder {
      * @param paymentStatus Current payment status (e.g., "Unpaid", "Paid", "Failed", "Refunded")
      * @param referenceNumber Reference number for digital payments (empty string for cash)
      * @param timestamp Timestamp for digital payments (empty string for cash)
+     * @param order Typed values parsed from the fields above (see OrderFileFormat.newOrder)
      */
     public RecentOrder(String orderId, String name, String contactNumber, String itemsOrdered, String totalItems, 
                       String totalAmount, String paymentMethod, String orderDate, String orderStatus, String paymentStatus,
-                      String referenceNumber, String timestamp) {
+                      String referenceNumber, String timestamp, Order order) {
         // Initialize all properties with provided values
         this.orderId = new SimpleStringProperty(orderId);
         this.name = new SimpleStringProperty(name);
@@ -56,71 +66,17 @@ public class RecentOrder {
         this.paymentStatus = new SimpleStringProperty(paymentStatus);
         this.referenceNumber = new SimpleStringProperty(referenceNumber != null ? referenceNumber : "");
         this.timestamp = new SimpleStringProperty(timestamp != null ? timestamp : "");
+        this.order = order;
     }
     
-    /**
-     * Constructor for backward compatibility with old single status format
-     * Automatically determines payment status based on order status
-     * @param orderId Unique order identifier (e.g., "WP20250624-001")
-     * @param name Customer name who placed the order
-     * @param contactNumber Customer contact number
-     * @param itemsOrdered Description of items ordered (e.g., "Pizza x2, Coke x1")
-     * @param totalItems Total number of items in the order
-     * @param totalAmount Total amount/price of the order (e.g., "₱15.99")
-     * @param paymentMethod Payment method used (e.g., "Cash", "GCash", "Maya")
-     * @param orderDate Date the order was placed (formatted string)
-     * @param status Legacy single status field - will be used as order status
-     * @param referenceNumber Reference number for digital payments (empty string for cash)
-     * @param timestamp Timestamp for digital payments (empty string for cash)
-     */
-    public RecentOrder(String orderId, String name, String contactNumber, String itemsOrdered, String totalItems, 
-                      String totalAmount, String paymentMethod, String orderDate, String status,
-                      String referenceNumber, String timestamp) {
-        // Call main constructor with determined payment status
-        this(orderId, name, contactNumber, itemsOrdered, totalItems, totalAmount, paymentMethod, orderDate, 
-             status, determinePaymentStatusFromOrderStatus(status), referenceNumber, timestamp);
-    }
-    
-    /**
-     * Constructor for backward compatibility (without contact number and digital payment fields)
-     * @param orderId Unique order identifier (e.g., "WP20250624-001")
-     * @param name Customer name who placed the order
-     * @param itemsOrdered Description of items ordered (e.g., "Pizza x2, Coke x1")
-     * @param totalItems Total number of items in the order
-     * @param totalAmount Total amount/price of the order (e.g., "₱15.99")
-     * @param paymentMethod Payment method used (e.g., "Cash", "GCash", "Maya")
-     * @param orderDate Date the order was placed (formatted string)
-     * @param status Legacy single status field - will be used as order status
-     */
-    public RecentOrder(String orderId, String name, String itemsOrdered, String totalItems, 
-                      String totalAmount, String paymentMethod, String orderDate, String status) {
-        this(orderId, name, "", itemsOrdered, totalItems, totalAmount, paymentMethod, orderDate, status, "", "");
-    }
-
-    /**
-     * Constructor with contact number but without digital payment fields
-     * @param orderId Unique order identifier (e.g., "WP20250624-001")
-     * @param name Customer name who placed the order
-     * @param contactNumber Customer contact number
-     * @param itemsOrdered Description of items ordered (e.g., "Pizza x2, Coke x1")
-     * @param totalItems Total number of items in the order
-     * @param totalAmount Total amount/price of the order (e.g., "₱15.99")
-     * @param paymentMethod Payment method used (e.g., "Cash", "GCash", "Maya")
-     * @param orderDate Date the order was placed (formatted string)
-     * @param status Legacy single status field - will be used as order status
-     */
-    public RecentOrder(String orderId, String name, String contactNumber, String itemsOrdered, String totalItems, 
-                      String totalAmount, String paymentMethod, String orderDate, String status) {
-        this(orderId, name, contactNumber, itemsOrdered, totalItems, totalAmount, paymentMethod, orderDate, status, "", "");
-    }
-
     /**
      * Helper method to determine payment status from legacy order status
-     * Used for backward compatibility when loading old data
+     * Used for backward compatibility when loading old data, and by the order journal
+     * to detect payment statuses that orders.txt cannot represent
      * @param orderStatus The legacy order status
      * @return Appropriate payment status
      */
-    private static String determinePaymentStatusFromOrderStatus(String orderStatus) {
+    public static String determinePaymentStatusFromOrderStatus(String orderStatus) {
         return switch (orderStatus) {
             case "Completed" -> "Paid";        // Completed orders are typically paid
             case "Cancelled" -> "Refunded";    // Cancelled orders may be refunded
@@ -302,6 +258,34 @@ public class RecentOrder {
         return timestamp.get();
     }
     
+    /**
+     * @return Typed values of this order, parsed once
+     */
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * @return Total amount in centavos
+     */
+    public long getAmountCentavos() {
+        return order.amountCentavos();
+    }
+
+    /**
+     * @return Parsed order date and time
+     */
+    public LocalDateTime getOrderDateTime() {
+        return order.orderDateTime();
+    }
+
+    /**
+     * @return Items ordered, parsed once into line items
+     */
+    public List<LineItem> getLineItems() {
+        return order.items();
+    }
+
     // Legacy getter for backward compatibility
     /**
      * Legacy method for backward compatibility
@@ -311,12 +295,25 @@ public class RecentOrder {
         return getOrderStatus();
     }
     
+    /**
+     * Create an independent copy of this order with the same field values
+     * Used to change an order that is part of a published snapshot without touching the
+     * instance (and JavaFX properties) other threads may be showing
+     * @return The copy
+     */
+    public RecentOrder copy() {
+        return new RecentOrder(getOrderId(), getName(), getContactNumber(), getItemsOrdered(), getTotalItems(),
+            getTotalAmount(), getPaymentMethod(), getOrderDate(), getOrderStatus(), getPaymentStatus(),
+            getReferenceNumber(), getTimestamp(), order);
+    }
+
     /**
      * Set the order status to a new value
      * @param newOrderStatus The new order status to set
      */
     public void setOrderStatus(String newOrderStatus) {
         orderStatus.set(newOrderStatus);
+        order = order.withOrderStatus(OrderStatus.fromLabel(newOrderStatus));
     }
     
     /**
@@ -325,6 +322,7 @@ public class RecentOrder {
      */
     public void setPaymentStatus(String newPaymentStatus) {
         paymentStatus.set(newPaymentStatus);
+        order = order.withPaymentStatus(PaymentStatus.fromLabel(newPaymentStatus));
     }
     
     /**
@@ -1,8 +1,6 @@
 package com.example.wondertrackxd.controller.model;
 
-import com.example.wondertrackxd.controller.analytics.DataService;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * SalesRecord Model Class for WonderTrackXd POS System
@@ -31,8 +29,10 @@ public class SalesRecord {
     
     // Transaction details
     private String itemsSold;       // Semicolon-separated list of items with quantities
+    private List<LineItem> lineItems = List.of(); // Items sold parsed once
     private String totalItems;     // Total quantity of items sold
     private String saleAmount;      // Final transaction amount (₱)
+    private long saleAmountCentavos; // Final transaction amount parsed once, in centavos
     private String paymentMethod;   // Cash, GCash, Maya
     
     // Transaction timing and references
@@ -55,6 +55,7 @@ public class SalesRecord {
      * @param customerName Customer's full name
      * @param contactNumber Customer's phone number
      * @param itemsSold List of items sold with quantities
+     * @param lineItems The items sold, parsed (see ProductCatalog.parseItems)
      * @param totalItems Total number of items sold
      * @param saleAmount Final transaction amount
      * @param paymentMethod Payment method used
@@ -63,15 +64,17 @@ public class SalesRecord {
      * @param cashReceived Amount received for cash payments
      */
     public SalesRecord(String saleId, String orderId, String customerName, String contactNumber,
-                      String itemsSold, String totalItems, String saleAmount, String paymentMethod,
-                      String saleDateTime, String paymentReference, String cashReceived) {
+                      String itemsSold, List<LineItem> lineItems, String totalItems, String saleAmount,
+                      String paymentMethod, String saleDateTime, String paymentReference, String cashReceived) {
         this.saleId = saleId;
         this.orderId = orderId;
         this.customerName = customerName;
         this.contactNumber = contactNumber;
         this.itemsSold = itemsSold;
+        this.lineItems = lineItems;
         this.totalItems = totalItems;
         this.saleAmount = saleAmount;
+        this.saleAmountCentavos = Order.parseCentavos(saleAmount);
         this.paymentMethod = paymentMethod;
         this.saleDateTime = saleDateTime;
         this.paymentReference = paymentReference;
@@ -155,9 +158,19 @@ public class SalesRecord {
     /**
      * Set the list of items sold
      * @param itemsSold Items sold to set
+     * @param lineItems The same items, parsed
      */
-    public void setItemsSold(String itemsSold) {
+    public void setItemsSold(String itemsSold, List<LineItem> lineItems) {
         this.itemsSold = itemsSold;
+        this.lineItems = lineItems;
+    }
+
+    /**
+     * Get the items sold, parsed once when the items are set
+     * @return Line items of the sale
+     */
+    public List<LineItem> getLineItems() {
+        return lineItems;
     }
 
     /**
@@ -190,6 +203,15 @@ public class SalesRecord {
      */
     public void setSaleAmount(String saleAmount) {
         this.saleAmount = saleAmount;
+        this.saleAmountCentavos = Order.parseCentavos(saleAmount);
+    }
+
+    /**
+     * Get the sale amount in centavos, parsed once when the amount is set
+     * @return Sale amount in centavos
+     */
+    public long getSaleAmountCentavos() {
+        return saleAmountCentavos;
     }
 
     /**
@@ -266,71 +288,6 @@ public class SalesRecord {
                 saleAmount, paymentMethod, saleDateTime, paymentReference, cashReceived);
     }
 
-    /**
-     * Create a SalesRecord from a completed RecentOrder
-     * @param order The completed order to convert to a sale
-     * @return New SalesRecord representing the completed sale
-     */
-    public static SalesRecord fromOrder(RecentOrder order) {
-        // Generate sequential sale ID (S001, S002, etc.)
-        String saleId = generateNextSaleId();
-        
-        // Determine cash received based on payment method
-        String cashReceived = "0.00";
-        if ("Cash".equalsIgnoreCase(order.getPaymentMethod())) {
-            // For cash payments, use the timestamp field which contains cash amount
-            cashReceived = order.getTimestamp();
-            if (cashReceived == null || cashReceived.trim().isEmpty()) {
-                cashReceived = "0.00";
-            }
-        }
-        
-        return new SalesRecord(
-                saleId,                  // Sale ID (now S001, S002, etc.)
-                order.getOrderId(),      // Original order ID (WP...)
-                order.getName(),         // Customer name
-                order.getContactNumber(),// Contact number
-                order.getItemsOrdered(), // Items ordered
-                order.getTotalItems(),   // Total items
-                order.getTotalAmount(),  // Sale amount
-                order.getPaymentMethod(),// Payment method
-                order.getOrderDate(),    // Sale date/time
-                order.getReferenceNumber() != null ? order.getReferenceNumber() : "", // Payment reference
-                cashReceived             // Cash received
-        );
-    }
-
-    /**
-     * Generate the next sequential sale ID
-     * Format: S001, S002, etc.
-     * @return Next sale ID in sequence
-     */
-    private static String generateNextSaleId() {
-        try {
-            DataService dataService = new DataService();
-            dataService.loadSalesData(); // Load current sales data
-            
-            List<String> existingSaleIds = dataService.getAllSales()
-                .stream()
-                .map(SalesRecord::getSaleId)
-                .filter(id -> id.matches("S\\d{3}"))
-                .sorted()
-                .collect(Collectors.toList());
-
-            if (existingSaleIds.isEmpty()) {
-                return "S001";
-            }
-
-            // Get the last ID and increment
-            String lastId = existingSaleIds.get(existingSaleIds.size() - 1);
-            int nextNumber = Integer.parseInt(lastId.substring(1)) + 1;
-            return String.format("S%03d", nextNumber);
-        } catch (Exception e) {
-            // If anything goes wrong, return a fallback ID
-            return "S" + System.currentTimeMillis();
-        }
-    }
-
     /**
      * String representation for debugging and logging
      * @return String representation of the sales record
@@ -0,0 +1,376 @@
+package com.example.wondertrackxd.controller.orders;
+
+import com.example.wondertrackxd.controller.data.DateTimeParser;
+import com.example.wondertrackxd.controller.data.OrderBitmapIndex;
+import com.example.wondertrackxd.controller.data.OrderSearchIndex;
+import com.example.wondertrackxd.controller.data.ProductCatalog;
+import com.example.wondertrackxd.controller.model.LineItem;
+import com.example.wondertrackxd.controller.model.OrderStatus;
+import com.example.wondertrackxd.controller.model.PaymentMethod;
+import com.example.wondertrackxd.controller.model.RecentOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Search query typed into the Orders search field, compiled once into a list of clauses
+ *
+ * Syntax (terms are separated by spaces, values with spaces go in double quotes):
+ * - status:Pending, status:pending,in-progress
+ * - pay:GCash (also payment: and method:), comma-separated alternatives allowed
+ * - amount>200, amount<=150.50, amount:200..500
+ * - date:2025-07-04, date:2025-07-04..2025-07-09, date>=2025-07-01 (any date format the order files use)
+ * - flavor:"Oreo-verload" (also item:), matching product names that contain the value
+ * - name:, id: and contact:, matching fields that contain the value
+ * - anything else is free text, matched against order ID, name and items through the search index
+ *
+ * All clauses must match. They run cheapest first: enum and number comparisons, then the
+ * product-ID lookup, then the index result, then plain substring checks. A term whose field is
+ * unknown or whose value does not parse is treated as free text, so a plain search works as before.
+ */
+public final class OrderQuery {
+
+    // Clause costs; clauses are evaluated in ascending cost order
+    private static final int COST_ENUM = 1;
+    private static final int COST_RANGE = 2;
+    private static final int COST_PRODUCT = 3;
+    private static final int COST_INDEX = 4;
+    private static final int COST_SUBSTRING = 5;
+
+    private static final OrderQuery EMPTY = new OrderQuery(List.of(), "", false);
+
+    /**
+     * One compiled term
+     * @param cost Evaluation cost rank
+     * @param test Row test
+     * @param rows Bitmap lookup of the matching rows, or null if the clause has no bitmap
+     */
+    private record Clause(int cost, Predicate<RecentOrder> test, Function<OrderBitmapIndex, BitSet> rows) {
+
+        Clause(int cost, Predicate<RecentOrder> test) {
+            this(cost, test, null);
+        }
+    }
+
+    /**
+     * One space-separated term of the input
+     * @param text Term text with quotes removed
+     * @param operatorIndex Index of the first unquoted ':', '=', '<' or '>', or -1
+     */
+    private record Term(String text, int operatorIndex) {
+    }
+
+    private final List<Clause> clauses;
+    private final String freeText;
+    private final boolean usesStatus;
+
+    private OrderQuery(List<Clause> clauses, String freeText, boolean usesStatus) {
+        this.clauses = clauses;
+        this.freeText = freeText;
+        this.usesStatus = usesStatus;
+    }
+
+    /**
+     * Compile the text of the search field
+     * @param input Search text (may be null)
+     * @return The compiled query
+     */
+    public static OrderQuery compile(String input) {
+        if (input == null || input.isBlank()) return EMPTY;
+
+        List<Clause> clauses = new ArrayList<>();
+        List<String> words = new ArrayList<>();
+        boolean usesStatus = false;
+        for (Term term : split(input)) {
+            Clause clause = term.operatorIndex() > 0 ? compileField(term) : null;
+            if (clause == null) {
+                words.add(term.text());
+            } else {
+                clauses.add(clause);
+                usesStatus |= term.text().substring(0, term.operatorIndex()).equalsIgnoreCase("status");
+            }
+        }
+        clauses.sort(Comparator.comparingInt(Clause::cost));
+
+        // Without field terms the text is searched exactly as typed, spaces included
+        String freeText = clauses.isEmpty() ? input.trim() : String.join(" ", words);
+        return new OrderQuery(List.copyOf(clauses), freeText.toLowerCase(), usesStatus);
+    }
+
+    /**
+     * @return true if the query has no clauses and no free text
+     */
+    public boolean isEmpty() {
+        return clauses.isEmpty() && freeText.isEmpty();
+    }
+
+    /**
+     * @return true if the query filters on order status, so a status change can move an order in or out
+     */
+    public boolean usesStatus() {
+        return usesStatus;
+    }
+
+    /**
+     * Resolve the status and payment-method terms to candidate rows through the bitmap index
+     * Terms on different fields are combined with AND; alternatives within a term with OR.
+     * @param index Bitmap index over the orders being filtered
+     * @return New bitmap of the candidate rows, or null if the query has no such terms
+     */
+    public BitSet candidateRows(OrderBitmapIndex index) {
+        BitSet candidates = null;
+        for (Clause clause : clauses) {
+            if (clause.rows() == null) continue;
+            BitSet rows = clause.rows().apply(index);
+            if (candidates == null) {
+                candidates = rows;
+            } else {
+                candidates.and(rows);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Turn the query into one predicate, looking up the free text in the search index
+     * @param index Search index over the current orders
+     * @return Predicate matching the orders that satisfy every clause
+     */
+    public Predicate<RecentOrder> bind(OrderSearchIndex index) {
+        List<Clause> plan = new ArrayList<>(clauses);
+        if (!freeText.isEmpty()) {
+            Set<String> matches = index.search(freeText);
+            plan.add(new Clause(COST_INDEX, order -> matches.contains(order.getOrderId())));
+            plan.sort(Comparator.comparingInt(Clause::cost));
+        }
+
+        List<Predicate<RecentOrder>> tests = new ArrayList<>(plan.size());
+        for (Clause clause : plan) {
+            tests.add(clause.test());
+        }
+        return order -> {
+            for (Predicate<RecentOrder> test : tests) {
+                if (!test.test(order)) return false;
+            }
+            return true;
+        };
+    }
+
+    private static Clause compileField(Term term) {
+        String text = term.text();
+        int at = term.operatorIndex();
+        String field = text.substring(0, at).toLowerCase(Locale.ROOT);
+        String operator = String.valueOf(text.charAt(at));
+        int valueStart = at + 1;
+        if ((operator.equals("<") || operator.equals(">")) && valueStart < text.length() && text.charAt(valueStart) == '=') {
+            operator += "=";
+            valueStart++;
+        }
+        if (operator.equals("=")) {
+            operator = ":";
+        }
+        String value = text.substring(valueStart).trim();
+        if (value.isEmpty()) return null;
+
+        switch (field) {
+            case "status":
+                return operator.equals(":") ? compileStatus(value) : null;
+            case "pay":
+            case "payment":
+            case "method":
+                return operator.equals(":") ? compilePaymentMethod(value) : null;
+            case "amount":
+            case "total":
+                return compileAmount(operator, value);
+            case "date":
+                return compileDate(operator, value);
+            case "flavor":
+            case "item":
+                return operator.equals(":") ? compileProduct(value) : null;
+            case "name":
+                return operator.equals(":") ? contains(RecentOrder::getName, value) : null;
+            case "id":
+                return operator.equals(":") ? contains(RecentOrder::getOrderId, value) : null;
+            case "contact":
+                return operator.equals(":") ? contains(RecentOrder::getContactNumber, value) : null;
+            default:
+                return null;
+        }
+    }
+
+    private static Clause compileStatus(String value) {
+        EnumSet<OrderStatus> statuses = EnumSet.noneOf(OrderStatus.class);
+        for (String label : value.split(",")) {
+            OrderStatus status = OrderStatus.fromLabel(label);
+            if (status == OrderStatus.UNKNOWN) return null;
+            statuses.add(status);
+        }
+        return new Clause(COST_ENUM, order -> statuses.contains(order.getOrder().orderStatus()),
+            index -> index.rowsWithStatus(statuses));
+    }
+
+    private static Clause compilePaymentMethod(String value) {
+        EnumSet<PaymentMethod> methods = EnumSet.noneOf(PaymentMethod.class);
+        for (String label : value.split(",")) {
+            PaymentMethod method = PaymentMethod.fromLabel(label);
+            if (method == PaymentMethod.OTHER) return null;
+            methods.add(method);
+        }
+        return new Clause(COST_ENUM, order -> methods.contains(order.getOrder().paymentMethod()),
+            index -> index.rowsWithPaymentMethod(methods));
+    }
+
+    private static Clause compileAmount(String operator, String value) {
+        long[] range = compileRange(operator, value, OrderQuery::parseAmount);
+        if (range == null) return null;
+        long min = range[0];
+        long max = range[1];
+        return new Clause(COST_RANGE, order -> {
+            long amount = order.getAmountCentavos();
+            return amount >= min && amount <= max;
+        });
+    }
+
+    private static Clause compileDate(String operator, String value) {
+        long[] range = compileRange(operator, value, OrderQuery::parseEpochDay);
+        if (range == null) return null;
+        long min = range[0];
+        long max = range[1];
+        return new Clause(COST_RANGE, order -> {
+            long day = order.getOrder().orderDate().toEpochDay();
+            return day >= min && day <= max;
+        });
+    }
+
+    /**
+     * Resolve a comparison or "a..b" range into inclusive bounds (values are centavos or epoch days)
+     * @return {min, max}, or null if a value does not parse
+     */
+    private static long[] compileRange(String operator, String value, ToLongFunction<String> parser) {
+        long min = Long.MIN_VALUE;
+        long max = Long.MAX_VALUE;
+        try {
+            switch (operator) {
+                case ":":
+                    int dots = value.indexOf("..");
+                    if (dots >= 0) {
+                        String from = value.substring(0, dots).trim();
+                        String to = value.substring(dots + 2).trim();
+                        if (!from.isEmpty()) min = parser.applyAsLong(from);
+                        if (!to.isEmpty()) max = parser.applyAsLong(to);
+                    } else {
+                        min = max = parser.applyAsLong(value);
+                    }
+                    break;
+                case ">":
+                    min = parser.applyAsLong(value) + 1;
+                    break;
+                case ">=":
+                    min = parser.applyAsLong(value);
+                    break;
+                case "<":
+                    max = parser.applyAsLong(value) - 1;
+                    break;
+                case "<=":
+                    max = parser.applyAsLong(value);
+                    break;
+                default:
+                    return null;
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return new long[] { min, max };
+    }
+
+    private static long parseAmount(String value) {
+        String clean = value.replace("₱", "").replace(",", "").trim();
+        if (clean.isEmpty()) throw new IllegalArgumentException("Empty amount");
+        for (int i = 0; i < clean.length(); i++) {
+            char c = clean.charAt(i);
+            if (c != '.' && (c < '0' || c > '9')) {
+                throw new IllegalArgumentException("Not an amount: " + value);
+            }
+        }
+        // Order.parseCentavos reads bad input as 0; a lone or doubled dot must fall back to free text instead
+        BigDecimal amount = new BigDecimal(clean);
+        return amount.movePointRight(2).longValue();
+    }
+
+    private static long parseEpochDay(String value) {
+        LocalDate date;
+        if (value.equalsIgnoreCase("today")) {
+            date = LocalDate.now();
+        } else {
+            LocalDateTime dateTime = DateTimeParser.parse(value);
+            if (dateTime == null) throw new IllegalArgumentException("Not a date: " + value);
+            date = dateTime.toLocalDate();
+        }
+        return date.toEpochDay();
+    }
+
+    private static Clause compileProduct(String value) {
+        // Resolve the name once to the set of matching product IDs
+        ProductCatalog catalog = ProductCatalog.getInstance();
+        String needle = value.toLowerCase();
+        BitSet products = new BitSet();
+        for (int id = 0; id < catalog.size(); id++) {
+            if (catalog.nameOf(id).toLowerCase().contains(needle)) {
+                products.set(id);
+            }
+        }
+        return new Clause(COST_PRODUCT, order -> {
+            for (LineItem item : order.getLineItems()) {
+                if (products.get(item.productId())) return true;
+            }
+            return false;
+        });
+    }
+
+    private static Clause contains(Function<RecentOrder, String> field, String value) {
+        String needle = value.toLowerCase();
+        return new Clause(COST_SUBSTRING, order -> {
+            String text = field.apply(order);
+            return text != null && text.toLowerCase().contains(needle);
+        });
+    }
+
+    /**
+     * Split the input on spaces outside double quotes, dropping the quotes
+     */
+    private static List<Term> split(String input) {
+        List<Term> terms = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int operatorIndex = -1;
+        boolean quoted = false;
+        for (int i = 0; i <= input.length(); i++) {
+            char c = i < input.length() ? input.charAt(i) : ' ';
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (Character.isWhitespace(c) && (!quoted || i == input.length())) {
+                if (current.length() > 0) {
+                    terms.add(new Term(current.toString(), operatorIndex));
+                    current.setLength(0);
+                }
+                operatorIndex = -1;
+            } else {
+                if (!quoted && operatorIndex < 0 && (c == ':' || c == '=' || c == '<' || c == '>')) {
+                    operatorIndex = current.length();
+                }
+                current.append(c);
+            }
+        }
+        return terms;
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.wondertrackxd.controller.orders;
 
+import com.example.wondertrackxd.controller.model.LineItem;
 import com.example.wondertrackxd.controller.model.RecentOrder;
 import com.example.wondertrackxd.controller.model.WaffleCategory;
 import com.example.wondertrackxd.controller.model.WaffleFlavor;
 import com.example.wondertrackxd.controller.model.OrderItem;
+import com.example.wondertrackxd.controller.model.OrderStatus;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.beans.Observable;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.ComboBoxTableCell;
@@ -59,13 +64,25 @@ import javafx.scene.paint.Color;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.image.WritableImage;
 import javafx.application.Platform;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.Objects;
 import javafx.animation.PauseTransition;
 import javafx.util.Duration;
 import com.example.wondertrackxd.controller.analytics.AnalyticsController;
 import com.example.wondertrackxd.controller.analytics.DataService;
+import com.example.wondertrackxd.controller.data.FileChangeNotifier;
+import com.example.wondertrackxd.controller.data.OrderBitmapIndex;
+import com.example.wondertrackxd.controller.data.OrderFileFormat;
+import com.example.wondertrackxd.controller.data.OrderRepository;
+import com.example.wondertrackxd.controller.data.SequenceAllocator;
+import com.example.wondertrackxd.controller.data.TopK;
 import com.example.wondertrackxd.controller.header.HeaderController;
 
 /**
@@ -137,14 +154,31 @@ public class OrdersController {
     @FXML private Button nextPageBtn;
     @FXML private Label pageLabel;
     @FXML private Label resultsInfoLabel;
+    @FXML private CheckBox showAllToggle;
     
     // Data
     private List<RecentOrder> allOrders = new ArrayList<>();
-    private ObservableList<RecentOrder> filteredOrders = FXCollections.observableArrayList();
+    private List<RecentOrder> filteredOrders = List.of(); // Latest published filter result (FX thread only)
+    private int filteredSortedCount = 0; // Leading rows of filteredOrders already in sort order
     private List<DynamicOrderItem> currentDynamicOrderItems = new ArrayList<>();
     private int totalQuantity = 0;
     private int currentPage = 1;
     private final int itemsPerPage = 15;
+    
+    // "Show all" mode: the table is bound to one sorted, filtered view over every order instead of a page copy
+    private boolean showAll = false;
+    // The extractor reports status changes, so the views re-filter and re-sort just that row
+    private final ObservableList<RecentOrder> orderRows =
+        FXCollections.observableArrayList(order -> new Observable[] { order.orderStatusProperty() });
+    private final FilteredList<RecentOrder> filteredRows = new FilteredList<>(orderRows);
+    private final SortedList<RecentOrder> sortedRows = new SortedList<>(filteredRows);
+    private List<RecentOrder> orderRowsSource; // Snapshot currently held by orderRows
+    
+    // Shared order set; changes are persisted through the order journal
+    private final OrderRepository orderRepository = OrderRepository.getInstance();
+    
+    // Order currently loaded into the form through the edit action (null when creating a new order)
+    private RecentOrder editingOrder;
 
     private static final String RECEIPT_SEPARATOR = "--------------------------------------";
     
@@ -155,7 +189,24 @@ public class OrdersController {
     // Filter debouncing
     private PauseTransition searchDebouncer;
     private final AtomicReference<String> lastSearchText = new AtomicReference<>("");
-    private volatile boolean isFilteringInProgress = false;
+    
+    // Background filtering; only the job of the latest generation publishes its result
+    private static final ExecutorService filterExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wondertrack-order-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong filterGeneration = new AtomicLong();
+    
+    // Filter state that produced filteredOrders, for updating it in place when one order changes
+    private record PublishedFilter(long generation, String status, OrderQuery query,
+                                   Predicate<RecentOrder> searchFilter, String sortBy) {
+    }
+    private PublishedFilter publishedFilter;
+    
+    // Last compiled search query, reused while the search text is unchanged
+    private OrderQuery compiledQuery = OrderQuery.compile("");
+    private String compiledQueryText = "";
     
     // Product data structure to hold flavor information from txt files
     public static class ProductData {
@@ -195,14 +246,8 @@ public class OrdersController {
         loadDynamicProductData(); // Load categories and flavors from txt files
         
         // Register for product data change notifications
-        try {
-            Class<?> productMgmtClass = Class.forName("com.example.wondertrackxd.controller.products.ProductManagementController");
-            java.lang.reflect.Method registerMethod = productMgmtClass.getMethod("registerDataChangeCallback", Runnable.class);
-            registerMethod.invoke(null, (Runnable) this::refreshProductData);
-            logger.info("📡 Registered for product data change notifications");
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Could not register for product data changes", e);
-        }
+        FileChangeNotifier.getInstance().subscribe("orders-products", changed -> Platform.runLater(this::refreshProductData),
+            FileChangeNotifier.PRODUCTS_FILE, FileChangeNotifier.CATEGORIES_FILE);
         
         setupFormControls();
         setupTable();
@@ -435,8 +480,8 @@ public class OrdersController {
             });
             actionsColumn.setSortable(false);
             
-            // Set table as editable and bind to filtered data
-            ordersTable.setItems(filteredOrders);
+            // Table shows one page of the filtered data (see updateTableView)
+            ordersTable.setItems(FXCollections.observableArrayList());
             
             // Ensure table fits within container width
             ordersTable.setColumnResizePolicy(TableView.UNCONSTRAINED_RESIZE_POLICY);
@@ -690,14 +735,14 @@ public class OrdersController {
             // Update the order status in memory
             order.setStatus(newStatus);
             
-            // Save the updated status to the orders.txt file
-            boolean saveSuccess = saveOrdersToFile();
+            // Append the status change to the order journal
+            boolean saveSuccess = orderRepository.saveStatusChange(order);
             
             if (saveSuccess) {
                 // Log successful change with details
                 logger.info("🎯 Order " + order.getOrderId() + " status successfully updated: " + 
                            oldStatus + " → " + newStatus + " (Customer: " + order.getName() + ")");
-                logger.info("💾 Status change saved to orders.txt file");
+                logger.info("💾 Status change appended to order journal");
             } else {
                 // Revert the change if saving failed
                 order.setStatus(oldStatus);
@@ -802,14 +847,14 @@ public class OrdersController {
                 return;
             }
             
-            // Save the updated status to the orders.txt file
-            boolean saveSuccess = saveOrdersToFile();
+            // Append the status change to the order journal
+            boolean saveSuccess = orderRepository.saveStatusChange(order);
             
             if (saveSuccess) {
                 // Log successful change with details
                 logger.info("🎯 Order " + order.getOrderId() + " status successfully updated: " + 
                            oldStatus + " → " + newStatus + " (Customer: " + order.getName() + ")");
-                logger.info("💾 Status change saved to orders.txt file");
+                logger.info("💾 Status change appended to order journal");
                 
                 // Update statistics without redundant table refresh (already handled by caller)
                 Platform.runLater(() -> {
@@ -832,12 +877,16 @@ public class OrdersController {
     /**
      * Update status-related statistics (optional enhancement)
      * Can be used to update counters, refresh dashboards, etc.
+     * The counts come from the repository's bitmap index, which status changes keep current.
      */
     private void updateStatusStatistics() {
         try {
             // Count orders by status
-            Map<String, Long> statusCounts = allOrders.stream()
-                .collect(Collectors.groupingBy(RecentOrder::getStatus, Collectors.counting()));
+            OrderBitmapIndex bitmaps = orderRepository.getBitmapIndex();
+            Map<OrderStatus, Integer> statusCounts = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus status : OrderStatus.values()) {
+                statusCounts.put(status, bitmaps.countWithStatus(status, null));
+            }
             
             logger.info("📊 Status distribution updated: " + statusCounts);
             
@@ -883,32 +932,9 @@ public class OrdersController {
             
             if ("Completed".equals(newStatus) && !"Completed".equals(oldStatus)) {
                 // Order is being completed - create sales record
+                // Sales and Analytics views refresh through FileChangeNotifier when sales.txt changes
                 if (dataService.createSalesRecord(order)) {
                     logger.info("✅ Sales record created for order: " + order.getOrderId());
-                    
-                    // Refresh analytics view if available
-                    try {
-                        if (HeaderController.getInstance() != null && 
-                            HeaderController.getInstance().getAnalyticsController() != null) {
-                            HeaderController.getInstance().getAnalyticsController().refreshAnalytics();
-                            logger.info("✅ Analytics view refreshed successfully");
-                        }
-                    } catch (Exception e) {
-                        logger.log(Level.WARNING, "⚠️ Could not refresh analytics view", e);
-                    }
-                    
-                    // Refresh sales view if available
-                    try {
-                        if (HeaderController.getInstance() != null && 
-                            HeaderController.getInstance().getSalesController() != null) {
-                            HeaderController.getInstance().getSalesController().refreshSalesData();
-                            logger.info("✅ Sales view refreshed successfully");
-                        } else {
-                            logger.warning("⚠️ SalesController not available through HeaderController");
-                        }
-                    } catch (Exception e) {
-                        logger.log(Level.WARNING, "⚠️ Could not refresh sales view", e);
-                    }
                 } else {
                     logger.severe("❌ Failed to create sales record for order: " + order.getOrderId());
                 }
@@ -916,52 +942,23 @@ public class OrdersController {
                 // Order is being changed from completed to another status - remove sales record
                 if (dataService.removeSalesRecord(order.getOrderId())) {
                     logger.info("✅ Sales record removed for order: " + order.getOrderId());
-                    
-                    // Refresh analytics view if available
-                    try {
-                        if (HeaderController.getInstance() != null && 
-                            HeaderController.getInstance().getAnalyticsController() != null) {
-                            HeaderController.getInstance().getAnalyticsController().refreshAnalytics();
-                            logger.info("✅ Analytics view refreshed successfully");
-                        }
-                    } catch (Exception e) {
-                        logger.log(Level.WARNING, "⚠️ Could not refresh analytics view", e);
-                    }
-                    
-                    // Refresh sales view if available
-                    try {
-                        if (HeaderController.getInstance() != null && 
-                            HeaderController.getInstance().getSalesController() != null) {
-                            HeaderController.getInstance().getSalesController().refreshSalesData();
-                            logger.info("✅ Sales view refreshed successfully");
-                        } else {
-                            logger.warning("⚠️ SalesController not available through HeaderController");
-                        }
-                    } catch (Exception e) {
-                        logger.log(Level.WARNING, "⚠️ Could not refresh sales view", e);
-                    }
                 } else {
                     logger.warning("⚠️ No sales record found to remove for order: " + order.getOrderId());
                 }
             }
             
-            // Persist change to orders.txt
-            if (saveOrdersToFile()) {
-                logger.info("💾 Order status persisted to file successfully");
+            // Persist change as a single journal append
+            if (orderRepository.saveStatusChange(order)) {
+                logger.info("💾 Order status persisted to journal successfully");
 
                 // Instead of re-loading the whole data set (which caused flicker & race-conditions),
                 // simply refresh the current in-memory lists & UI.
                 Platform.runLater(() -> {
-                    // Re-apply active filters & pagination so the row stays visible/hidden correctly
-                    applyFiltersAsync();           // keeps filtering logic consistent
-                    updateStatusStatistics();      // refresh status counts displayed elsewhere
+                    // Move only this order in or out of the filtered view so the row stays visible/hidden correctly
+                    updateFilteredOrder(order, oldStatus, newStatus);
+                    updateStatusStatistics(); // refresh status counts displayed elsewhere
                     ordersTable.refresh();         // lightweight table refresh for visual update
                 });
-
-                // Notify analytics to refresh (sales controller already handled above for Completed)
-                if (HeaderController.getInstance() != null && HeaderController.getInstance().getAnalyticsController() != null) {
-                    HeaderController.getInstance().getAnalyticsController().refreshAnalytics();
-                }
             } else {
                 logger.severe("❌ Failed to save order status change – UI rolled back to previous value");
                 order.setStatus(oldStatus);          // rollback model to maintain consistency
@@ -978,8 +975,8 @@ public class OrdersController {
      */
     private void handlePaymentStatusChangeDirectly(RecentOrder order, String oldStatus, String newStatus) {
         try {
-            // Save changes to file
-            if (saveOrdersToFile()) {
+            // Append the change to the order journal
+            if (orderRepository.savePaymentStatusChange(order)) {
                 logger.info("💾 Payment status change saved for: " + order.getOrderId());
                 updateStatusStatistics();
             } else {
@@ -1037,7 +1034,10 @@ public class OrdersController {
             }
             
             // Parse and populate ordered items
-            parseAndPopulateOrderItems(order.getItemsOrdered());
+            populateOrderItems(order.getLineItems());
+            
+            // Remember which order is being edited so saving updates it in place
+            editingOrder = order;
             
             // Show success message
             showAlert(Alert.AlertType.INFORMATION, "Edit Mode", 
@@ -1052,40 +1052,14 @@ public class OrdersController {
     }
     
     /**
-     * Parse items ordered string and populate the form with individual items
-     * @param itemsOrdered String like "Oreo Overload x2; Chocolate x1"
+     * Populate the form with the individual items of an order
+     * @param items Parsed line items of the order
      */
-    private void parseAndPopulateOrderItems(String itemsOrdered) {
-        if (itemsOrdered == null || itemsOrdered.trim().isEmpty()) {
-            return;
-        }
-        
+    private void populateOrderItems(List<LineItem> items) {
         try {
-            // Split items by semicolon
-            String[] items = itemsOrdered.split(";");
-            
-            for (String item : items) {
-                item = item.trim();
-                if (item.isEmpty()) continue;
-                
-                // Parse item format: "Flavor Name x Quantity"
-                String flavorName;
-                int quantity = 1;
-                
-                if (item.contains(" x")) {
-                    int xIndex = item.lastIndexOf(" x");
-                    flavorName = item.substring(0, xIndex).trim();
-                    
-                    try {
-                        String quantityStr = item.substring(xIndex + 2).trim();
-                        quantity = Integer.parseInt(quantityStr);
-                    } catch (NumberFormatException e) {
-                        logger.warning("⚠️ Could not parse quantity from: " + item);
-                        quantity = 1;
-                    }
-                } else {
-                    flavorName = item.trim();
-                }
+            for (LineItem item : items) {
+                String flavorName = item.productName();
+                int quantity = item.quantity();
                 
                 // Find the product data for this flavor
                 ProductData productData = findProductByName(flavorName);
@@ -1107,7 +1081,7 @@ public class OrdersController {
             }
             
         } catch (Exception e) {
-            logger.log(Level.WARNING, "⚠️ Error parsing order items", e);
+            logger.log(Level.WARNING, "⚠️ Error loading order items", e);
         }
     }
 
@@ -1201,181 +1175,17 @@ public class OrdersController {
 
     private void loadOrderData() {
         try {
-            String filePath = "txtFiles/orders.txt";
-            InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath);
-            
-            if (inputStream == null) {
-                inputStream = getClass().getResourceAsStream("/" + filePath);
-            }
-            
-            if (inputStream == null) {
-                logger.severe("Orders file not found: " + filePath);
-                return;
-            }
-            
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-                allOrders = reader.lines()
-                    .filter(line -> !line.trim().isEmpty())
-                    .filter(line -> !line.trim().startsWith("#"))
-                    .map(this::parseOrderLine)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-                // Sort orders by date (newest first) to ensure proper chronological order
-                allOrders.sort((o1, o2) -> {
-                    // First compare by date (newest first)
-                    LocalDate date1 = parseOrderDate(o1.getOrderDate());
-                    LocalDate date2 = parseOrderDate(o2.getOrderDate());
-                    int dateComparison = date2.compareTo(date1); // Reverse for newest first
-                    
-                    if (dateComparison != 0) {
-                        return dateComparison;
-                    }
-                    
-                    // If same date, sort by order ID sequence (highest number first)
-                    String orderId1 = o1.getOrderId();
-                    String orderId2 = o2.getOrderId();
-                    
-                    // Extract sequence numbers from order IDs (e.g., "001" from "WP20250624-001")
-                    try {
-                        String seq1 = orderId1.substring(orderId1.lastIndexOf('-') + 1);
-                        String seq2 = orderId2.substring(orderId2.lastIndexOf('-') + 1);
-                        int num1 = Integer.parseInt(seq1);
-                        int num2 = Integer.parseInt(seq2);
-                        return Integer.compare(num2, num1); // Reverse for highest first
-                    } catch (Exception e) {
-                        // Fallback to string comparison if parsing fails
-                        return orderId2.compareTo(orderId1);
-                    }
-                });
+            // Read-only snapshot of the shared order set (already sorted newest first)
+            allOrders = orderRepository.getOrders();
 
-                logger.info("Successfully loaded " + allOrders.size() + " orders (sorted newest first)");
-                applyFiltersAsync();
-                updatePagination();
-            }
+            logger.info("Successfully loaded " + allOrders.size() + " orders (sorted newest first)");
+            applyFiltersAsync();
+            updatePagination();
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error loading order data", e);
         }
     }
 
-    private RecentOrder parseOrderLine(String line) {
-        try {
-            List<String> tokens = new ArrayList<>();
-            StringBuilder currentToken = new StringBuilder();
-            boolean inQuotes = false;
-            
-            for (char c : line.toCharArray()) {
-                if (c == '"') {
-                    inQuotes = !inQuotes;
-                } else if (c == ',' && !inQuotes) {
-                    tokens.add(currentToken.toString().trim());
-                    currentToken = new StringBuilder();
-                } else {
-                    currentToken.append(c);
-                }
-            }
-            tokens.add(currentToken.toString().trim());
-            
-            // Handle different formats: old (8 fields), with contact (9 fields), and new (11 fields)
-            if (tokens.size() < 8) return null;
-            
-            if (tokens.size() >= 11) {
-                // New format with contact number and digital payment details
-                return new RecentOrder(
-                    tokens.get(0).trim(), tokens.get(1).trim(), tokens.get(2).trim(), 
-                    tokens.get(3).replace("\"", "").trim(), tokens.get(4).trim(), tokens.get(5).trim(), 
-                    tokens.get(6).trim(), tokens.get(7).replace("\"", "").trim(), tokens.get(8).trim(),
-                    tokens.get(9).replace("\"", "").trim(), tokens.get(10).replace("\"", "").trim()
-                );
-            } else if (tokens.size() >= 10) {
-                // Old format with digital payment details but no contact number
-                return new RecentOrder(
-                    tokens.get(0).trim(), tokens.get(1).trim(), "", tokens.get(2).replace("\"", "").trim(), 
-                    tokens.get(3).trim(), tokens.get(4).trim(), tokens.get(5).trim(), 
-                    tokens.get(6).replace("\"", "").trim(), tokens.get(7).trim(),
-                    tokens.get(8).replace("\"", "").trim(), tokens.get(9).replace("\"", "").trim()
-                );
-            } else if (tokens.size() >= 9) {
-                // Format with contact number but no digital payment details
-                return new RecentOrder(
-                    tokens.get(0).trim(), tokens.get(1).trim(), tokens.get(2).trim(),
-                    tokens.get(3).replace("\"", "").trim(), tokens.get(4).trim(), tokens.get(5).trim(), 
-                    tokens.get(6).trim(), tokens.get(7).replace("\"", "").trim(), tokens.get(8).trim()
-                );
-            } else {
-                // Old format without contact number and digital payment details
-                return new RecentOrder(
-                    tokens.get(0).trim(), tokens.get(1).trim(), tokens.get(2).replace("\"", "").trim(), 
-                    tokens.get(3).trim(), tokens.get(4).trim(), tokens.get(5).trim(), 
-                    tokens.get(6).replace("\"", "").trim(), tokens.get(7).trim()
-                );
-            }
-            
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error parsing order line: " + line, e);
-            return null;
-        }
-    }
-    
-    /**
-     * Save all orders data back to the orders.txt file with comprehensive error handling
-     * @return true if save was successful, false otherwise
-     */
-    private boolean saveOrdersToFile() {
-        try {
-            // Get the path to the orders.txt file in resources
-            String resourcePath = "src/main/resources/txtFiles/orders.txt";
-            Path filePath = Paths.get(resourcePath);
-            
-            // Create the directory if it doesn't exist
-            Files.createDirectories(filePath.getParent());
-            
-            // Prepare the content to write
-            List<String> lines = new ArrayList<>();
-            
-            // Add the header comment
-            lines.add("# Format: Order ID, Name, Contact Number, Items Ordered, Total Items, Total Amount, Payment Method, Date and Time, Status, Reference Number, Timestamp");
-            
-            // Convert all orders back to the file format
-            for (RecentOrder order : allOrders) {
-                String line = formatOrderForFile(order);
-                lines.add(line);
-            }
-            
-            // Write all lines to the file, replacing the existing content
-            Files.write(filePath, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            
-            logger.info("💾 Successfully saved " + allOrders.size() + " orders to file: " + resourcePath);
-            return true;
-            
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "❌ Error saving orders to file", e);
-            return false;
-        }
-    }
-
-    /**
-     * Format a RecentOrder object back to the original file format
-     * @param order The order to format
-     * @return Formatted string ready for the file
-     */
-    private String formatOrderForFile(RecentOrder order) {
-        // Format: Order ID, Name, Contact Number, Items Ordered, Total Items, Total Amount, Payment Method, Date and Time, Status, Reference Number, Timestamp
-        return String.format("%s,%s,%s,\"%s\",%s,%s,%s,\"%s\",%s,\"%s\",\"%s\"",
-            order.getOrderId(),
-            order.getName(),
-            order.getContactNumber(),
-            order.getItemsOrdered(),
-            order.getTotalItems(),
-            order.getTotalAmount(),
-            order.getPaymentMethod(),
-            order.getOrderDate(),
-            order.getStatus(),
-            order.getReferenceNumber(),
-            order.getTimestamp()
-        );
-    }
-
     private void setupEventHandlers() {
         categoryCombo.setOnAction(event -> {
             handleCategorySelection();
@@ -1400,6 +1210,13 @@ public class OrdersController {
         setupDebouncedSearch(); // Setup debounced search filtering
         sortFilterCombo.setOnAction(event -> applyFiltersAsync());
         clearFiltersButton.setOnAction(event -> clearAllFilters());
+        if (showAllToggle != null) {
+            showAllToggle.selectedProperty().addListener((obs, oldVal, newVal) -> {
+                showAll = newVal;
+                currentPage = 1;
+                applyFiltersAsync();
+            });
+        }
         
         // Payment detail fields (only update on focus lost to avoid constant refreshing)
         referenceNumberField.focusedProperty().addListener((obs, oldVal, newVal) -> {
@@ -1694,6 +1511,7 @@ public class OrdersController {
         currentDynamicOrderItems.clear();
         totalQuantity = 0;
         totalLabel.setText("Total Items: 0");
+        editingOrder = null;
         
         // Update invoice preview and items display after clearing
         updateInvoicePreview();
@@ -1956,18 +1774,16 @@ public class OrdersController {
             
         double totalAmount = currentDynamicOrderItems.stream().mapToDouble(DynamicOrderItem::getSubtotal).sum();
         
+        // Update the order that was loaded through the edit action instead of creating a duplicate
+        if (editingOrder != null && allOrders.contains(editingOrder)) {
+            saveEditedOrder(editingOrder, customerName, contactNumber, paymentMethod, totalAmount,
+                referenceNumber, timestamp, cashReceivedAmount);
+            return;
+        }
+        
         // Generate new order ID format: WPYYYYMMDD-00X starting from 001 for each day
         LocalDateTime now = LocalDateTime.now();
-        String dateString = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        
-        // Count orders for today to determine sequence number (start from 1, not 0)
-        String todayDatePrefix = "WP" + dateString;
-        long todayOrderCount = allOrders.stream()
-            .filter(order -> order.getOrderId().startsWith(todayDatePrefix))
-            .count();
-        
-        // Generate order ID starting from 001 for the first order of the day
-        String orderId = String.format("%s-%03d", todayDatePrefix, todayOrderCount + 1);
+        String orderId = SequenceAllocator.getInstance().nextOrderId(now.toLocalDate());
         String itemsOrdered = currentDynamicOrderItems.stream().map(DynamicOrderItem::getDisplayString).collect(Collectors.joining("; "));
         String currentDateTime = now.format(DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a", Locale.ENGLISH));
         
@@ -1981,18 +1797,16 @@ public class OrdersController {
             finalTimestampOrCash = cashReceivedAmount.trim(); // Store cash received amount
         }
         
-        RecentOrder newOrder = new RecentOrder(orderId, customerName, contactNumber, itemsOrdered, String.valueOf(totalQuantity),
-            String.format("₱%.2f", totalAmount), paymentMethod, currentDateTime, "Pending", 
+        RecentOrder newOrder = OrderFileFormat.newOrder(orderId, customerName, contactNumber, itemsOrdered, String.valueOf(totalQuantity),
+            String.format("₱%.2f", totalAmount), paymentMethod, currentDateTime, "Pending", "Unpaid",
             finalReferenceNumber, finalTimestampOrCash);
         
-        // Add the new order to the beginning of the in-memory list (most recent first)
-        allOrders.add(0, newOrder);
-        
-        // Save the updated orders list to the file
-        boolean saveSuccess = saveOrdersToFile();
+        // Save the new order; the repository places it first (most recent first)
+        boolean saveSuccess = orderRepository.addOrder(newOrder);
         
         if (saveSuccess) {
-            logger.info("💾 New order " + orderId + " created and saved to file successfully with status: Pending");
+            allOrders = orderRepository.getOrders();
+            logger.info("💾 New order " + orderId + " created and saved to journal successfully with status: Pending");
             handleClearForm();
             applyFiltersAsync();
             updatePagination();
@@ -2005,14 +1819,41 @@ public class OrdersController {
             showAlert(Alert.AlertType.INFORMATION, "Order Created", 
                 "Order " + orderId + " has been created and saved successfully with Pending status!");
         } else {
-            // Remove the order from memory if saving failed
-            allOrders.remove(newOrder);
             logger.severe("❌ Failed to save new order to file. Order creation cancelled.");
             showAlert(Alert.AlertType.ERROR, "Save Error", 
                 "Failed to save the new order to file. Please try again.");
         }
     }
     
+    /**
+     * Apply the form values to an existing order and record the edit in the order journal
+     * Order ID, order date and status are kept from the original order
+     */
+    private void saveEditedOrder(RecentOrder original, String customerName, String contactNumber, String paymentMethod,
+                                 double totalAmount, String referenceNumber, String timestamp, String cashReceivedAmount) {
+        String itemsOrdered = currentDynamicOrderItems.stream().map(DynamicOrderItem::getDisplayString).collect(Collectors.joining("; "));
+        boolean isCash = "Cash".equals(paymentMethod);
+        
+        RecentOrder updatedOrder = OrderFileFormat.newOrder(original.getOrderId(), customerName, contactNumber, itemsOrdered,
+            String.valueOf(totalQuantity), String.format("₱%.2f", totalAmount), paymentMethod, original.getOrderDate(),
+            original.getOrderStatus(), original.getPaymentStatus(),
+            isCash ? "" : referenceNumber.trim(), isCash ? cashReceivedAmount.trim() : timestamp.trim());
+        
+        if (orderRepository.updateOrder(updatedOrder)) {
+            allOrders = orderRepository.getOrders();
+            logger.info("💾 Order " + original.getOrderId() + " updated and saved to journal successfully");
+            handleClearForm();
+            applyFiltersAsync();
+            
+            showAlert(Alert.AlertType.INFORMATION, "Order Updated", 
+                "Order " + original.getOrderId() + " has been updated successfully!");
+        } else {
+            logger.severe("❌ Failed to save edited order " + original.getOrderId() + " to journal");
+            showAlert(Alert.AlertType.ERROR, "Save Error", 
+                "Failed to save the order changes. Please try again.");
+        }
+    }
+    
     /**
      * Handle view receipt action - opens a new window with actual PDF image preview
      * @param order The order to view receipt for
@@ -2193,59 +2034,269 @@ public class OrdersController {
         container.setAlignment(Pos.CENTER);
     }
 
-    private void applyFilters() {
-        if (isFilteringInProgress) {
-            logger.info("🔄 Filtering already in progress, skipping duplicate request");
+    /**
+     * Filter and sort the orders on the filter worker, then publish the result to the table
+     * Every call starts a new generation; a job whose generation is no longer the latest stops
+     * early and its result is dropped, so a newer keystroke supersedes a stale search.
+     */
+    private void applyFiltersAsync() {
+        // Ensure we're on the JavaFX Application Thread while reading the filter controls
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(this::applyFiltersAsync);
             return;
         }
         
-        try {
-            isFilteringInProgress = true;
-            logger.info("🔍 Applying filters to " + allOrders.size() + " orders");
-            
-            // Ensure we're on the JavaFX Application Thread
-            if (!Platform.isFxApplicationThread()) {
-                Platform.runLater(this::applyFilters);
-                return;
+        // Capture the filter state here; the worker never touches UI controls
+        List<RecentOrder> source = allOrders;
+        String selectedStatus = orderStatusFilter.getValue();
+        String searchText = searchField.getText();
+        OrderQuery query = compileSearchQuery(searchText);
+        String sortBy = sortFilterCombo.getValue();
+        long generation = filterGeneration.incrementAndGet();
+        
+        boolean bindAll = showAll;
+        
+        logger.info("🔍 Applying filters to " + source.size() + " orders");
+        filterExecutor.execute(() -> {
+            try {
+                // Compiled search query bound to the search index (null = no search)
+                Predicate<RecentOrder> searchFilter = query.isEmpty() ? null
+                    : query.bind(orderRepository.getSearchIndex());
+                
+                if (bindAll) {
+                    // The view filters and sorts itself; only the index lookup runs off the FX thread
+                    Platform.runLater(() -> {
+                        if (filterGeneration.get() != generation) return;
+                        showAllOrders(source, selectedStatus, searchFilter, sortBy);
+                    });
+                    return;
+                }
+                
+                // Status and payment-method terms resolve to candidate rows through the bitmap index
+                BitSet candidates = candidateRows(source, selectedStatus, query);
+                
+                List<RecentOrder> matches = new ArrayList<>();
+                if (candidates != null) {
+                    int visited = 0;
+                    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                        // Give up as soon as a newer request has been made
+                        if ((visited++ & 1023) == 0 && filterGeneration.get() != generation) return;
+                        
+                        RecentOrder order = source.get(i);
+                        if (matchesSearchFilter(order, searchFilter)) {
+                            matches.add(order);
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < source.size(); i++) {
+                        // Give up as soon as a newer request has been made
+                        if ((i & 1023) == 0 && filterGeneration.get() != generation) return;
+                        
+                        RecentOrder order = source.get(i);
+                        if (matchesStatusFilter(order, selectedStatus) && matchesSearchFilter(order, searchFilter)) {
+                            matches.add(order);
+                        }
+                    }
+                }
+                
+                if (filterGeneration.get() != generation) return;
+                
+                // Amount sorts only order the first page; later pages are sorted on demand
+                List<RecentOrder> result;
+                int sortedCount;
+                if (isAmountSort(sortBy) && TopK.isWorthwhile(matches.size(), itemsPerPage)) {
+                    result = selectTopOrders(matches, itemsPerPage, sortBy);
+                    sortedCount = itemsPerPage;
+                } else {
+                    result = sortOrders(matches, sortBy);
+                    sortedCount = result.size();
+                }
+                
+                Platform.runLater(() -> {
+                    if (filterGeneration.get() != generation) return;
+                    
+                    filteredOrders = result;
+                    filteredSortedCount = sortedCount;
+                    publishedFilter = new PublishedFilter(generation, selectedStatus, query, searchFilter, sortBy);
+                    currentPage = 1;
+                    updateTableView();
+                    updatePagination();
+                    
+                    logger.info("✅ Filtering completed: " + filteredOrders.size() + " orders match criteria");
+                });
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "❌ Error during filtering", e);
+            }
+        });
+    }
+    
+    /**
+     * Look up the rows allowed by the status dropdown and the status/payment terms of the query
+     * @param source Orders being filtered
+     * @param selectedStatus Selected order status filter
+     * @param query Compiled search query
+     * @return New bitmap of positions in source, or null to scan every order
+     */
+    private BitSet candidateRows(List<RecentOrder> source, String selectedStatus, OrderQuery query) {
+        OrderBitmapIndex bitmaps = orderRepository.getBitmapIndex();
+        if (bitmaps.getOrders() != source) return null;
+        
+        BitSet candidates = query.candidateRows(bitmaps);
+        if (selectedStatus != null && !"All".equals(selectedStatus)) {
+            OrderStatus status = OrderStatus.fromLabel(selectedStatus);
+            if (status == OrderStatus.UNKNOWN) return null;
+            BitSet statusRows = bitmaps.rowsWithStatus(EnumSet.of(status));
+            if (candidates == null) {
+                candidates = statusRows;
+            } else {
+                candidates.and(statusRows);
             }
-            
-            filteredOrders.clear();
-            List<RecentOrder> tempFilteredList = allOrders.stream()
-                .filter(this::matchesStatusFilter)
-                .filter(this::matchesSearchFilter)
-                .sorted(this::compareOrders)
-                .collect(Collectors.toList());
-            
-            filteredOrders.addAll(tempFilteredList);
-            currentPage = 1;
-            updateTableView();
-            updatePagination();
-            
-            logger.info("✅ Filtering completed: " + filteredOrders.size() + " orders match criteria");
-            
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "❌ Error during filtering", e);
-        } finally {
-            isFilteringInProgress = false;
         }
+        return candidates;
     }
     
     /**
-     * Asynchronous filter application to prevent UI freezing
+     * Bind the table to the sorted, filtered view over every order ("Show all" mode)
+     * The rows are only replaced when the order snapshot changed; otherwise a filter or sort change
+     * just swaps the predicate or comparator of the view, and the table only creates cells for the
+     * rows that are visible.
+     * @param source Current order snapshot
+     * @param selectedStatus Selected order status filter
+     * @param searchFilter Compiled search query, or null when not searching
+     * @param sortBy Selected sort mode label
      */
-    private void applyFiltersAsync() {
-        if (isFilteringInProgress) {
+    private void showAllOrders(List<RecentOrder> source, String selectedStatus, Predicate<RecentOrder> searchFilter,
+                               String sortBy) {
+        if (orderRowsSource != source) {
+            orderRows.setAll(source);
+            orderRowsSource = source;
+        }
+        filteredRows.setPredicate(order -> matchesStatusFilter(order, selectedStatus) && matchesSearchFilter(order, searchFilter));
+        sortedRows.setComparator(orderComparator(sortBy));
+        
+        filteredOrders = sortedRows;
+        filteredSortedCount = sortedRows.size();
+        publishedFilter = null;
+        currentPage = 1;
+        updateTableView();
+        updatePagination();
+        
+        logger.info("✅ Filtering completed: " + filteredOrders.size() + " orders match criteria");
+    }
+    
+    /**
+     * Update the published filter result after one order's status changed, without re-filtering
+     * The order's old and new rows are found by binary search in the sorted result, then it is
+     * removed, inserted or moved. Falls back to a full filter run if a filter job is still pending
+     * or the search query itself filters on status.
+     * In "Show all" mode the view reacts to the status property itself.
+     * @param order The order whose status changed
+     * @param oldStatus The previous status
+     * @param newStatus The new status
+     */
+    private void updateFilteredOrder(RecentOrder order, String oldStatus, String newStatus) {
+        if (showAll) return;
+        
+        PublishedFilter filter = publishedFilter;
+        if (filter == null || filter.generation() != filterGeneration.get() || filter.query().usesStatus()) {
+            applyFiltersAsync();
             return;
         }
         
-        Platform.runLater(() -> {
-            try {
-                applyFilters();
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "❌ Error in async filtering", e);
-                isFilteringInProgress = false;
+        boolean searchMatch = matchesSearchFilter(order, filter.searchFilter());
+        boolean wasShown = searchMatch && (filter.status() == null || "All".equals(filter.status())
+            || filter.status().equals(oldStatus));
+        boolean isShown = searchMatch && matchesStatusFilter(order, filter.status());
+        boolean moves = "Status".equals(filter.sortBy());
+        if ((!wasShown && !isShown) || (wasShown && isShown && !moves)) return;
+        
+        // Rows are located by binary search, so the whole result must be in sort order
+        ensureSortedThrough(filteredOrders.size());
+        if (wasShown) {
+            int index = indexInFilteredOrders(order, oldStatus, filter.sortBy());
+            if (index < 0) {
+                applyFiltersAsync();
+                return;
             }
-        });
+            filteredOrders.remove(index);
+        }
+        if (isShown) {
+            filteredOrders.add(lowerBound(filteredOrders, positionComparator(order, newStatus, filter.sortBy())), order);
+        }
+        
+        updateTableView();
+        updatePagination();
+        logger.info("⚡ Filtered view updated in place for order " + order.getOrderId());
+    }
+    
+    /**
+     * Find an order in filteredOrders
+     * @param order The order
+     * @param status The status the order was sorted under
+     * @param sortBy Sort mode of filteredOrders
+     * @return Row index, or -1 if the order is not where its sort keys place it
+     */
+    private int indexInFilteredOrders(RecentOrder order, String status, String sortBy) {
+        ToIntFunction<RecentOrder> position = positionComparator(order, status, sortBy);
+        for (int i = lowerBound(filteredOrders, position); i < filteredOrders.size(); i++) {
+            RecentOrder row = filteredOrders.get(i);
+            if (row == order) return i;
+            if (position.applyAsInt(row) != 0) break;
+        }
+        return -1;
+    }
+    
+    /**
+     * Compare rows of a sorted filter result against the position of one order
+     * Ties in the sort key keep snapshot order, which is newest first.
+     * @param order The order
+     * @param status Status to place the order by (it may differ from the order's current status)
+     * @param sortBy Sort mode of the rows
+     * @return Function giving a negative number for rows before the order and positive for rows after it
+     */
+    private static ToIntFunction<RecentOrder> positionComparator(RecentOrder order, String status, String sortBy) {
+        if ("Status".equals(sortBy)) {
+            return row -> {
+                int byStatus = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)
+                    .compare(row == order ? status : row.getOrderStatus(), status);
+                return byStatus != 0 ? byStatus : OrderRepository.NEWEST_FIRST.compare(row, order);
+            };
+        }
+        Comparator<RecentOrder> byKey = orderComparator(sortBy);
+        Comparator<RecentOrder> rowOrder = byKey == null ? OrderRepository.NEWEST_FIRST
+            : byKey.thenComparing(OrderRepository.NEWEST_FIRST);
+        return row -> rowOrder.compare(row, order);
+    }
+    
+    /**
+     * @return Index of the first row that does not sort before the target
+     */
+    private static int lowerBound(List<RecentOrder> rows, ToIntFunction<RecentOrder> compareToTarget) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareToTarget.applyAsInt(rows.get(mid)) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Compile the search text, reusing the previous plan while the text is unchanged
+     * @param searchText Text of the search field
+     * @return The compiled query
+     */
+    private OrderQuery compileSearchQuery(String searchText) {
+        String text = searchText == null ? "" : searchText;
+        if (!text.equals(compiledQueryText)) {
+            compiledQuery = OrderQuery.compile(text);
+            compiledQueryText = text;
+        }
+        return compiledQuery;
     }
     
     /**
@@ -2262,6 +2313,9 @@ public class OrdersController {
             }
         });
         
+        searchField.setTooltip(new Tooltip("Search by ID, name or items, or filter with\n"
+            + "status:Pending  pay:GCash  amount>200  flavor:\"Oreo-verload\"  date:2025-07-04..2025-07-09"));
+        
         // Add listener to search field with debouncing
         searchField.textProperty().addListener((obs, oldVal, newVal) -> {
             // Stop any pending filter operation
@@ -2273,12 +2327,11 @@ public class OrdersController {
         logger.info("🔍 Debounced search filtering configured with 300ms delay");
     }
 
-    private boolean matchesStatusFilter(RecentOrder order) {
+    private boolean matchesStatusFilter(RecentOrder order, String selectedOrderStatus) {
         if (order == null) return false;
         
         try {
             // Check order status filter
-            String selectedOrderStatus = orderStatusFilter.getValue();
             if (selectedOrderStatus == null || "All".equals(selectedOrderStatus)) {
                 return true;
             }
@@ -2295,152 +2348,179 @@ public class OrdersController {
 
     // Date filter functionality removed
 
-    private boolean matchesSearchFilter(RecentOrder order) {
+    /**
+     * Check an order against the compiled search query
+     * @param order The order to check
+     * @param searchFilter Compiled search query, or null when not searching
+     * @return true if the order matches
+     */
+    private boolean matchesSearchFilter(RecentOrder order, Predicate<RecentOrder> searchFilter) {
         if (order == null) return false;
-        
-        try {
-            String searchText = searchField.getText();
-            if (searchText == null || searchText.trim().isEmpty()) return true;
-            
-            String searchLower = searchText.toLowerCase().trim();
-            
-            // Check order ID
-            String orderId = order.getOrderId();
-            if (orderId != null && orderId.toLowerCase().contains(searchLower)) {
-                return true;
-            }
-            
-            // Check customer name
-            String name = order.getName();
-            if (name != null && name.toLowerCase().contains(searchLower)) {
-                return true;
-            }
-            
-            // Check items ordered
-            String itemsOrdered = order.getItemsOrdered();
-            if (itemsOrdered != null && itemsOrdered.toLowerCase().contains(searchLower)) {
-                return true;
-            }
-            
-            return false;
-            
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error matching search filter for order: " + 
-                      (order != null ? order.getOrderId() : "null"), e);
-            return false;
-        }
+        return searchFilter == null || searchFilter.test(order);
+    }
+
+    /**
+     * Sort key of one order, extracted once before sorting
+     * @param order The order
+     * @param key Numeric key (epoch minute or amount in centavos) for date and amount sorts
+     * @param text Case-folded key for name and status sorts (null sorts last)
+     */
+    private record SortEntry(RecentOrder order, long key, String text) {
     }
 
-    private int compareOrders(RecentOrder o1, RecentOrder o2) {
-        if (o1 == null && o2 == null) return 0;
-        if (o1 == null) return 1;
-        if (o2 == null) return -1;
+    /**
+     * Sort orders by the selected sort mode (decorate-sort-undecorate)
+     * Each order's key is extracted once, so the comparisons only touch primitives or
+     * pre-folded strings. The sort is stable, so ties keep their newest-first order.
+     * @param orders Orders to sort
+     * @param sortBy Selected sort mode label
+     * @return The sorted orders
+     */
+    private static List<RecentOrder> sortOrders(List<RecentOrder> orders, String sortBy) {
+        if (sortBy == null) return orders;
+        
+        Comparator<SortEntry> byKey = Comparator.comparingLong(SortEntry::key);
+        Comparator<SortEntry> byText = Comparator.comparing(SortEntry::text, Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<SortEntry> byTextDescending = Comparator.comparing(SortEntry::text, Comparator.nullsLast(Comparator.reverseOrder()));
+        
+        Comparator<SortEntry> comparator;
+        Function<RecentOrder, SortEntry> decorate;
+        switch (sortBy) {
+            case "Date (Newest First)":
+                comparator = byKey.reversed();
+                decorate = order -> new SortEntry(order, order.getOrder().epochMinute(), null);
+                break;
+            case "Date (Oldest First)":
+                comparator = byKey;
+                decorate = order -> new SortEntry(order, order.getOrder().epochMinute(), null);
+                break;
+            case "Name (A-Z)":
+                comparator = byText;
+                decorate = order -> new SortEntry(order, 0, foldCase(order.getName()));
+                break;
+            case "Name (Z-A)":
+                comparator = byTextDescending;
+                decorate = order -> new SortEntry(order, 0, foldCase(order.getName()));
+                break;
+            case "Amount (High to Low)":
+                comparator = byKey.reversed();
+                decorate = order -> new SortEntry(order, order.getAmountCentavos(), null);
+                break;
+            case "Amount (Low to High)":
+                comparator = byKey;
+                decorate = order -> new SortEntry(order, order.getAmountCentavos(), null);
+                break;
+            case "Status":
+                comparator = byText;
+                decorate = order -> new SortEntry(order, 0, foldCase(order.getOrderStatus()));
+                break;
+            default:
+                return orders;
+        }
         
-        try {
-            String sortBy = sortFilterCombo.getValue();
-            if (sortBy == null) return 0;
-            
-            switch (sortBy) {
-                case "Date (Newest First)": 
-                    return parseOrderDate(o2.getOrderDate()).compareTo(parseOrderDate(o1.getOrderDate()));
-                case "Date (Oldest First)": 
-                    return parseOrderDate(o1.getOrderDate()).compareTo(parseOrderDate(o2.getOrderDate()));
-                case "Name (A-Z)": 
-                    String name1 = o1.getName();
-                    String name2 = o2.getName();
-                    if (name1 == null && name2 == null) return 0;
-                    if (name1 == null) return 1;
-                    if (name2 == null) return -1;
-                    return name1.compareToIgnoreCase(name2);
-                case "Name (Z-A)": 
-                    String nameZ1 = o1.getName();
-                    String nameZ2 = o2.getName();
-                    if (nameZ1 == null && nameZ2 == null) return 0;
-                    if (nameZ1 == null) return 1;
-                    if (nameZ2 == null) return -1;
-                    return nameZ2.compareToIgnoreCase(nameZ1);
-                case "Amount (High to Low)": 
-                    return Double.compare(parseAmount(o2.getTotalAmount()), parseAmount(o1.getTotalAmount()));
-                case "Amount (Low to High)": 
-                    return Double.compare(parseAmount(o1.getTotalAmount()), parseAmount(o2.getTotalAmount()));
-                case "Status": 
-                    String status1 = o1.getOrderStatus();
-                    String status2 = o2.getOrderStatus();
-                    if (status1 == null && status2 == null) return 0;
-                    if (status1 == null) return 1;
-                    if (status2 == null) return -1;
-                    return status1.compareToIgnoreCase(status2);
-                default: return 0;
-            }
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error comparing orders: " + 
-                      (o1 != null ? o1.getOrderId() : "null") + " vs " + 
-                      (o2 != null ? o2.getOrderId() : "null"), e);
-            return 0;
+        SortEntry[] entries = new SortEntry[orders.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = decorate.apply(orders.get(i));
         }
+        Arrays.sort(entries, comparator);
+        
+        List<RecentOrder> sorted = new ArrayList<>(entries.length);
+        for (SortEntry entry : entries) {
+            sorted.add(entry.order());
+        }
+        return sorted;
     }
     
     /**
-     * Parse order date from various formats including "Jan 26, 2025 3:45 PM" and new MM/DD/YYYY format
-     * @param dateTimeStr The date string to parse
-     * @return LocalDate if parsing successful, current date as fallback
+     * Comparator for the "Show all" view, matching the order sortOrders produces
+     * @param sortBy Selected sort mode label
+     * @return Comparator, or null to keep the snapshot order (newest first)
      */
-    private LocalDate parseOrderDate(String dateTimeStr) {
-        if (dateTimeStr == null || dateTimeStr.trim().isEmpty()) return LocalDate.now();
-        
-        try {
-            String cleanDateStr = dateTimeStr.trim();
-            
-            // Handle MM/DD/YYYY H:MM AM/PM format (new standard)
-            if (cleanDateStr.matches("\\d{2}/\\d{2}/\\d{4} \\d{1,2}:\\d{2} [AP]M")) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy h:mm a", Locale.ENGLISH);
-                return LocalDateTime.parse(cleanDateStr, formatter).toLocalDate();
-            }
-            
-            // Handle different legacy date formats for backward compatibility
-            if (cleanDateStr.contains("-")) {
-                // Format: 2025-01-26 or 2025-01-26 15:45:00
-                return LocalDate.parse(cleanDateStr.substring(0, 10));
-            } else if (cleanDateStr.contains(",")) {
-                // Format: "Jan 26, 2025 3:45 PM" or "Jan 26, 2025"
-                DateTimeFormatter[] formatters = {
-                    DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a", Locale.ENGLISH),  // "Jan 26, 2025 3:45 PM"
-                    DateTimeFormatter.ofPattern("MMM dd, yyyy h:mm a", Locale.ENGLISH), // "Jan 26, 2025 3:45 PM"
-                    DateTimeFormatter.ofPattern("MMM d, yyyy H:mm a", Locale.ENGLISH),  // "Jan 26, 2025 15:45 PM"
-                    DateTimeFormatter.ofPattern("MMM dd, yyyy H:mm a", Locale.ENGLISH), // "Jan 26, 2025 15:45 PM"
-                    DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH),         // "Jan 26, 2025"
-                    DateTimeFormatter.ofPattern("MMM dd, yyyy", Locale.ENGLISH)         // "Jan 26, 2025"
-                };
-                
-                for (DateTimeFormatter formatter : formatters) {
-                    try {
-                        if (formatter.toString().contains("h:mm") || formatter.toString().contains("H:mm")) {
-                            return LocalDateTime.parse(cleanDateStr, formatter).toLocalDate();
-                        } else {
-                            return LocalDate.parse(cleanDateStr, formatter);
-                        }
-                    } catch (Exception ignored) {
-                        // Try next formatter
-                    }
-                }
+    private static Comparator<RecentOrder> orderComparator(String sortBy) {
+        if (sortBy == null) return null;
+        
+        Comparator<RecentOrder> byDate = Comparator.comparingLong(order -> order.getOrder().epochMinute());
+        Comparator<RecentOrder> byAmount = Comparator.comparingLong(RecentOrder::getAmountCentavos);
+        Comparator<String> ignoreCase = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+        
+        switch (sortBy) {
+            case "Date (Newest First)":
+                return byDate.reversed();
+            case "Date (Oldest First)":
+                return byDate;
+            case "Name (A-Z)":
+                return Comparator.comparing(RecentOrder::getName, ignoreCase);
+            case "Name (Z-A)":
+                return Comparator.comparing(RecentOrder::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER.reversed()));
+            case "Amount (High to Low)":
+                return byAmount.reversed();
+            case "Amount (Low to High)":
+                return byAmount;
+            case "Status":
+                return Comparator.comparing(RecentOrder::getOrderStatus, ignoreCase);
+            default:
+                return null;
+        }
+    }
+    
+    private static boolean isAmountSort(String sortBy) {
+        return "Amount (High to Low)".equals(sortBy) || "Amount (Low to High)".equals(sortBy);
+    }
+    
+    /**
+     * Partially sort orders: the first k in sort order, followed by the rest in their current order
+     * @param orders Orders to sort
+     * @param k Number of leading orders to put in order
+     * @param sortBy Selected sort mode label
+     * @return New list with the same orders
+     */
+    private static List<RecentOrder> selectTopOrders(List<RecentOrder> orders, int k, String sortBy) {
+        List<RecentOrder> top = TopK.select(orders, k, orderComparator(sortBy));
+        Set<RecentOrder> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        selected.addAll(top);
+        
+        List<RecentOrder> result = new ArrayList<>(orders.size());
+        result.addAll(top);
+        for (RecentOrder order : orders) {
+            if (!selected.contains(order)) {
+                result.add(order);
             }
-            
-            logger.warning("⚠️ Could not parse date format: " + dateTimeStr);
-        } catch (Exception e) {
-            logger.warning("⚠️ Error parsing date: " + dateTimeStr + " - " + e.getMessage());
         }
+        return result;
+    }
+    
+    /**
+     * Make sure the first count rows of filteredOrders are in sort order
+     * Uses another partial sort while count is small, otherwise sorts everything once.
+     * @param count Number of leading rows needed
+     */
+    private void ensureSortedThrough(int count) {
+        if (count <= filteredSortedCount || publishedFilter == null) return;
         
-        return LocalDate.now(); // Fallback to current date
+        String sortBy = publishedFilter.sortBy();
+        if (TopK.isWorthwhile(filteredOrders.size(), count)) {
+            filteredOrders = selectTopOrders(filteredOrders, count, sortBy);
+            filteredSortedCount = count;
+        } else {
+            filteredOrders = sortOrders(filteredOrders, sortBy);
+            filteredSortedCount = filteredOrders.size();
+        }
     }
-
-    private double parseAmount(String amountStr) {
-        try {
-            return Double.parseDouble(amountStr.replace("₱", "").replace(",", "").trim());
-        } catch (NumberFormatException e) {
-            return 0.0;
+    
+    /**
+     * Fold a string the way compareToIgnoreCase compares characters
+     * @param value The string to fold
+     * @return Folded string, or null if value is null
+     */
+    private static String foldCase(String value) {
+        if (value == null) return null;
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
         }
+        return new String(chars);
     }
-
+    
     private void clearAllFilters() {
         try {
             logger.info("🧹 Clearing all filters");
@@ -2472,8 +2552,17 @@ public class OrdersController {
                 return;
             }
             
+            if (showAll) {
+                // Bound once; the view updates itself on filter and sort changes
+                if (ordersTable.getItems() != sortedRows) {
+                    ordersTable.setItems(sortedRows);
+                }
+                return;
+            }
+            
             int startIndex = (currentPage - 1) * itemsPerPage;
             int endIndex = Math.min(startIndex + itemsPerPage, filteredOrders.size());
+            ensureSortedThrough(endIndex);
             
             if (startIndex < filteredOrders.size() && startIndex >= 0) {
                 List<RecentOrder> pageData = new ArrayList<>(
@@ -2499,6 +2588,15 @@ public class OrdersController {
                 return;
             }
             
+            if (showAll) {
+                pageLabel.setText("All orders");
+                prevPageBtn.setDisable(true);
+                nextPageBtn.setDisable(true);
+                resultsInfoLabel.setText(filteredOrders.isEmpty() ? "No orders found"
+                    : "Showing all " + filteredOrders.size() + " orders");
+                return;
+            }
+            
             int totalPages = (int) Math.ceil((double) filteredOrders.size() / itemsPerPage);
             totalPages = Math.max(1, totalPages);
             
@@ -2530,7 +2628,7 @@ public class OrdersController {
 
     @FXML
     private void handlePrevPage() {
-        if (currentPage > 1) {
+        if (!showAll && currentPage > 1) {
             currentPage--;
             updateTableView();
             updatePagination();
@@ -2540,7 +2638,7 @@ public class OrdersController {
     @FXML
     private void handleNextPage() {
         int totalPages = (int) Math.ceil((double) filteredOrders.size() / itemsPerPage);
-        if (currentPage < totalPages) {
+        if (!showAll && currentPage < totalPages) {
             currentPage++;
             updateTableView();
             updatePagination();
@@ -2570,8 +2668,8 @@ public class OrdersController {
             float separatorX = (pageWidth - separatorWidth) / 2;
             
             // Calculate actual height needed based on content
-        String[] items = order.getItemsOrdered().split(";");
-            int itemCount = items.length;
+            List<LineItem> items = order.getLineItems();
+            int itemCount = items.size();
             float lineHeight = 12f; // Line height for compact receipt
             
             // Calculate total lines needed - updated calculation without the removed content
@@ -2750,13 +2848,10 @@ public class OrdersController {
             yPosition -= 10f; // 10px spacing after separator
             
             // Parse and display items in table format with correct pricing
-            for (String item : items) {
-                // Use helper method to get correct pricing
-                Object[] itemDetails = parseItemWithPrice(item);
-                String qty = (String) itemDetails[0];
-                String name = (String) itemDetails[1];
-                double unitPrice = (Double) itemDetails[2];
-                double totalPrice = (Double) itemDetails[3];
+            for (LineItem item : items) {
+                String qty = String.valueOf(item.quantity());
+                String name = item.productName();
+                double totalPrice = item.total();
                 
                 // Truncate name if too long (max 18 characters for narrow receipt)
                 if (name.length() > 18) {
@@ -3610,7 +3705,7 @@ public class OrdersController {
                 double actualTotal = currentDynamicOrderItems.stream().mapToDouble(DynamicOrderItem::getSubtotal).sum();
                 
                 // Create preview order with new ID format
-                RecentOrder previewOrder = new RecentOrder(
+                RecentOrder previewOrder = OrderFileFormat.newOrder(
                     "WP" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-001",
                     customerName,
                     contactNumber,
@@ -3620,6 +3715,7 @@ public class OrdersController {
                     paymentMethod,
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss")),
                     "Pending",
+                    "Unpaid",
                     referenceNumber,
                     timestampOrCash
                 );
@@ -3757,8 +3853,8 @@ public class OrdersController {
             float separatorX = (pageWidth - separatorWidth) / 2;
             
             // Calculate actual height needed based on content
-            String[] items = order.getItemsOrdered().split(";");
-            int itemCount = items.length;
+            List<LineItem> items = order.getLineItems();
+            int itemCount = items.size();
             float lineHeight = 12f; // Line height for compact receipt
             
             // Calculate total lines needed - updated calculation without the removed content
@@ -3937,13 +4033,10 @@ public class OrdersController {
             yPosition -= 10f; // 10px spacing after separator
             
             // Parse and display items in table format with correct pricing
-            for (String item : items) {
-                // Use helper method to get correct pricing
-                Object[] itemDetails = parseItemWithPrice(item);
-                String qty = (String) itemDetails[0];
-                String name = (String) itemDetails[1];
-                double unitPrice = (Double) itemDetails[2];
-                double totalPrice = (Double) itemDetails[3];
+            for (LineItem item : items) {
+                String qty = String.valueOf(item.quantity());
+                String name = item.productName();
+                double totalPrice = item.total();
                 
                 // Truncate name if too long (max 18 characters for narrow receipt)
                 if (name.length() > 18) {
@@ -4262,112 +4355,6 @@ public class OrdersController {
      * @return Calculated total amount
      */
     private double calculateOrderTotal(RecentOrder order) {
-        String[] items = order.getItemsOrdered().split(";");
-        double total = 0.0;
-        
-        for (String item : items) {
-            item = item.trim();
-            if (item.isEmpty()) continue;
-            
-            int quantity = 1;
-            String productName = item;
-            
-            // Parse quantity and product name from item string
-            if (item.contains(" x ")) {
-                String[] parts = item.split(" x ");
-                if (parts.length == 2) {
-                    productName = parts[0].trim();
-                    try {
-                        quantity = Integer.parseInt(parts[1].trim());
-                    } catch (NumberFormatException e) {
-                        quantity = 1;
-                    }
-                }
-            } else if (item.contains("x ")) {
-                String[] parts = item.split("x ");
-                if (parts.length == 2) {
-                    try {
-                        quantity = Integer.parseInt(parts[0].trim());
-                        productName = parts[1].trim();
-                    } catch (NumberFormatException e) {
-                        quantity = 1;
-                        productName = item;
-                    }
-                }
-            }
-            
-            // Find actual product data and use real price
-            ProductData productData = findProductByName(productName);
-            double unitPrice = productData != null ? productData.getPriceValue() : 45.0; // Fallback only
-            total += quantity * unitPrice;
-        }
-        
-        return total;
-    }
-    
-    /**
-     * Helper method to get item details with correct pricing for receipt generation
-     * @param item The item string to parse
-     * @return Object array containing [quantity, name, unitPrice, totalPrice]
-     */
-    private Object[] parseItemWithPrice(String item) {
-        item = item.trim();
-        String qty = "1";
-        String name = item;
-        double unitPrice = 45.0; // Default fallback
-        double totalPrice = unitPrice;
-        
-        // Parse quantity and name from item string
-        if (item.contains(" x ")) {
-            String[] parts = item.split(" x ");
-            if (parts.length == 2) {
-                name = parts[0].trim();
-                try {
-                    qty = parts[1].trim();
-                    int qtyInt = Integer.parseInt(qty);
-                    
-                    // Look up actual product price
-                    ProductData productData = findProductByName(name);
-                    unitPrice = productData != null ? productData.getPriceValue() : 45.0;
-                    totalPrice = qtyInt * unitPrice;
-                } catch (NumberFormatException e) {
-                    qty = "1";
-                    // Look up actual product price for single item
-                    ProductData productData = findProductByName(name);
-                    unitPrice = productData != null ? productData.getPriceValue() : 45.0;
-                    totalPrice = unitPrice;
-                }
-            }
-        } else if (item.contains("x ")) {
-            String[] parts = item.split("x ");
-            if (parts.length == 2) {
-                try {
-                    qty = parts[0].trim();
-                    name = parts[1].trim();
-                    int qtyInt = Integer.parseInt(qty);
-                    
-                    // Look up actual product price
-                    ProductData productData = findProductByName(name);
-                    unitPrice = productData != null ? productData.getPriceValue() : 45.0;
-                    totalPrice = qtyInt * unitPrice;
-                } catch (NumberFormatException e) {
-                    qty = "1";
-                    name = item;
-                    // Look up actual product price
-                    ProductData productData = findProductByName(name);
-                    unitPrice = productData != null ? productData.getPriceValue() : 45.0;
-                    totalPrice = unitPrice;
-                }
-            }
-        } else {
-            // Single item without explicit quantity
-            // Look up actual product price
-            ProductData productData = findProductByName(name);
-            unitPrice = productData != null ? productData.getPriceValue() : 45.0;
-            totalPrice = unitPrice;
-        }
-        
-        return new Object[]{qty, name, unitPrice, totalPrice};
+        return LineItem.totalCentavos(order.getLineItems()) / 100.0;
     }
 }
-
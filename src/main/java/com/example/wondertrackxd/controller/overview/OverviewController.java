@@ -1,5 +1,12 @@
 package com.example.wondertrackxd.controller.overview;
 
+import com.example.wondertrackxd.controller.data.DailyRollup;
+import com.example.wondertrackxd.controller.data.FileChangeNotifier;
+import com.example.wondertrackxd.controller.data.OrderBitmapIndex;
+import com.example.wondertrackxd.controller.data.OrderRepository;
+import com.example.wondertrackxd.controller.data.ProductCatalog;
+import com.example.wondertrackxd.controller.model.LineItem;
+import com.example.wondertrackxd.controller.model.OrderStatus;
 import com.example.wondertrackxd.controller.model.RecentOrder;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
@@ -47,9 +54,6 @@ import javafx.stage.Stage;
 import javafx.embed.swing.SwingFXUtils;
 
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -68,9 +72,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
@@ -105,7 +106,8 @@ public class OverviewController {
 
     // Data storage
     private List<RecentOrder> allOrders = new ArrayList<>();
-    private ScheduledExecutorService scheduler;
+    private final OrderRepository orderRepository = OrderRepository.getInstance();
+    private volatile long renderedVersion = -1; // Repository version currently shown on the dashboard
     private final DecimalFormat currencyFormat = new DecimalFormat("₱#,##0.00");
     
     // Receipt generation constant
@@ -137,164 +139,25 @@ public class OverviewController {
     }
 
     /**
-     * Load and process all order data from orders.txt file
-     * Parses data, calculates analytics, and prepares for display
+     * Load and process all order data from the shared order repository
+     * Reads the in-memory snapshot (no file I/O) and refreshes KPIs, charts and the table
      */
     private void loadAndProcessOrderData() {
         logger.info("📊 Loading and processing order data for analytics...");
         
         try {
-            String filePath = "txtFiles/orders.txt";
-            InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath);
-            
-            if (inputStream == null) {
-                inputStream = getClass().getResourceAsStream("/" + filePath);
-            }
-            
-            if (inputStream == null) {
-                logger.severe("❌ Orders file not found: " + filePath);
-                return;
-            }
+            // Read-only snapshot of the shared order set (already sorted newest first)
+            renderedVersion = orderRepository.getVersion();
+            allOrders = orderRepository.getOrders();
 
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-                allOrders = reader.lines()
-                    .filter(line -> !line.trim().isEmpty())
-                    .filter(line -> !line.trim().startsWith("#"))
-                    .map(this::parseOrderLine)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-                // Sort orders by date (newest first) to ensure proper chronological order
-                allOrders.sort((o1, o2) -> {
-                    // First compare by date (newest first)
-                    LocalDate date1 = parseOrderDate(o1.getOrderDate());
-                    LocalDate date2 = parseOrderDate(o2.getOrderDate());
-                    int dateComparison = date2.compareTo(date1); // Reverse for newest first
-                    
-                    if (dateComparison != 0) {
-                        return dateComparison;
-                    }
-                    
-                    // If same date, sort by order ID sequence (highest number first)
-                    String orderId1 = o1.getOrderId();
-                    String orderId2 = o2.getOrderId();
-                    
-                    // Extract sequence numbers from order IDs (e.g., "001" from "WP20250624-001")
-                    try {
-                        String seq1 = orderId1.substring(orderId1.lastIndexOf('-') + 1);
-                        String seq2 = orderId2.substring(orderId2.lastIndexOf('-') + 1);
-                        int num1 = Integer.parseInt(seq1);
-                        int num2 = Integer.parseInt(seq2);
-                        return Integer.compare(num2, num1); // Reverse for highest first
-                    } catch (Exception e) {
-                        // Fallback to string comparison if parsing fails
-                        return orderId2.compareTo(orderId1);
-                    }
-                });
-
-                logger.info("📈 Successfully loaded " + allOrders.size() + " orders (sorted newest first)");
-                
-                // Update all components with new data
-                updateAllKPIs();
-                setupCharts();
-                updateRecentOrdersTable();
-                
-            }
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "❌ Error loading order data", e);
-        }
-    }
-
-    /**
-     * Parse a single order line from the text file into RecentOrder object
-     * @param line Raw line from orders.txt file
-     * @return RecentOrder object or null if parsing fails
-     */
-    private RecentOrder parseOrderLine(String line) {
-        try {
-            List<String> tokens = new ArrayList<>();
-            StringBuilder currentToken = new StringBuilder();
-            boolean inQuotes = false;
-            
-            // Parse CSV with quote handling
-            for (char c : line.toCharArray()) {
-                if (c == '"') {
-                    inQuotes = !inQuotes;
-                } else if (c == ',' && !inQuotes) {
-                    tokens.add(currentToken.toString().trim());
-                    currentToken = new StringBuilder();
-                } else {
-                    currentToken.append(c);
-                }
-            }
-            tokens.add(currentToken.toString().trim());
-            
-            if (tokens.size() < 8) {
-                logger.warning("⚠️ Skipping malformed line with " + tokens.size() + " tokens");
-                return null;
-            }
-            
-            // Handle different formats: old (8 fields), with contact (9 fields), and new (11 fields)
-            if (tokens.size() >= 11) {
-                // New format with contact number and digital payment details
-                return new RecentOrder(
-                    tokens.get(0).trim(),                           // Order ID
-                    tokens.get(1).trim(),                           // Customer Name
-                    tokens.get(2).trim(),                           // Contact Number
-                    tokens.get(3).replace("\"", "").trim(),         // Items Ordered
-                    tokens.get(4).trim(),                           // Total Items
-                    tokens.get(5).trim(),                           // Total Amount
-                    tokens.get(6).trim(),                           // Payment Method
-                    tokens.get(7).replace("\"", "").trim(),         // Date/Time
-                    tokens.get(8).trim(),                           // Status
-                    tokens.get(9).replace("\"", "").trim(),         // Reference Number
-                    tokens.get(10).replace("\"", "").trim()         // Timestamp
-                );
-            } else if (tokens.size() >= 10) {
-                // Old format with digital payment details but no contact number
-                return new RecentOrder(
-                    tokens.get(0).trim(),                           // Order ID
-                    tokens.get(1).trim(),                           // Customer Name
-                    "",                                             // Contact Number (empty)
-                    tokens.get(2).replace("\"", "").trim(),         // Items Ordered
-                    tokens.get(3).trim(),                           // Total Items
-                    tokens.get(4).trim(),                           // Total Amount
-                    tokens.get(5).trim(),                           // Payment Method
-                    tokens.get(6).replace("\"", "").trim(),         // Date/Time
-                    tokens.get(7).trim(),                           // Status
-                    tokens.get(8).replace("\"", "").trim(),         // Reference Number
-                    tokens.get(9).replace("\"", "").trim()          // Timestamp
-                );
-            } else if (tokens.size() >= 9) {
-                // Format with contact number but no digital payment details
-                return new RecentOrder(
-                    tokens.get(0).trim(),                           // Order ID
-                    tokens.get(1).trim(),                           // Customer Name
-                    tokens.get(2).trim(),                           // Contact Number
-                    tokens.get(3).replace("\"", "").trim(),         // Items Ordered
-                    tokens.get(4).trim(),                           // Total Items
-                    tokens.get(5).trim(),                           // Total Amount
-                    tokens.get(6).trim(),                           // Payment Method
-                    tokens.get(7).replace("\"", "").trim(),         // Date/Time
-                    tokens.get(8).trim()                            // Status
-                );
-            } else {
-                // Old format without contact number and digital payment details
-                return new RecentOrder(
-                    tokens.get(0).trim(),                           // Order ID
-                    tokens.get(1).trim(),                           // Customer Name
-                    tokens.get(2).replace("\"", "").trim(),         // Items Ordered
-                    tokens.get(3).trim(),                           // Total Items
-                    tokens.get(4).trim(),                           // Total Amount
-                    tokens.get(5).trim(),                           // Payment Method
-                    tokens.get(6).replace("\"", "").trim(),         // Date/Time
-                    tokens.get(7).trim()                            // Status
-                );
-            }
+            logger.info("📈 Successfully loaded " + allOrders.size() + " orders (sorted newest first)");
             
+            // Update all components with new data
+            updateAllKPIs();
+            setupCharts();
+            updateRecentOrdersTable();
         } catch (Exception e) {
-            logger.log(Level.WARNING, "⚠️ Error parsing order line: " + line, e);
-            return null;
+            logger.log(Level.SEVERE, "❌ Error loading order data", e);
         }
     }
 
@@ -311,38 +174,42 @@ public class OverviewController {
             LocalDate today = LocalDate.now();
             LocalDate yesterday = today.minusDays(1);
             
-            // Filter orders for today and yesterday
-            List<RecentOrder> todaysOrders = allOrders.stream()
-                .filter(order -> {
-                    LocalDate orderDate = parseOrderDate(order.getOrderDate());
-                    return orderDate != null && orderDate.equals(today);
-                })
-                .collect(Collectors.toList());
-            
-            List<RecentOrder> yesterdaysOrders = allOrders.stream()
-                .filter(order -> {
-                    LocalDate orderDate = parseOrderDate(order.getOrderDate());
-                    return orderDate != null && orderDate.equals(yesterday);
-                })
-                .collect(Collectors.toList());
-            
-            // Calculate status counts for today
-            int pendingCount = countOrdersByStatusForOrders(todaysOrders, "Pending");
-            int inProgressCount = countOrdersByStatusForOrders(todaysOrders, "In-Progress");
-            int completedCount = countOrdersByStatusForOrders(todaysOrders, "Completed");
-            int cancelledCount = countOrdersByStatusForOrders(todaysOrders, "Cancelled");
-            int totalCount = todaysOrders.size();
-            
-            // Calculate gross sales for today and yesterday
-            double todaysGrossSales = calculateGrossSalesForOrders(todaysOrders);
-            double yesterdaysGrossSales = calculateGrossSalesForOrders(yesterdaysOrders);
+            // Daily order rollup of the loaded snapshot; it is kept current as orders are created and change status
+            OrderBitmapIndex bitmaps = orderRepository.getBitmapIndex();
+            DailyRollup rollup = bitmaps.getOrders() == allOrders ? orderRepository.getOrderRollup() : null;
+            
+            int pendingCount;
+            int inProgressCount;
+            int completedCount;
+            int cancelledCount;
+            int totalCount;
+            double todaysGrossSales;
+            double yesterdaysGrossSales;
+            if (rollup != null) {
+                // One day cell per date, so the cards cost the same however many orders there are;
+                // "today" is looked up by date on every refresh, which rolls over at midnight by itself
+                DailyRollup.Totals todays = rollup.getDay(today);
+                pendingCount = (int) todays.getOrderCount(OrderStatus.PENDING);
+                inProgressCount = (int) todays.getOrderCount(OrderStatus.IN_PROGRESS);
+                completedCount = (int) todays.getOrderCount(OrderStatus.COMPLETED);
+                cancelledCount = (int) todays.getOrderCount(OrderStatus.CANCELLED);
+                totalCount = (int) todays.getOrderCount();
+                todaysGrossSales = todays.getRevenueCentavos(OrderStatus.COMPLETED) / 100.0;
+                yesterdaysGrossSales = rollup.getDay(yesterday).getRevenueCentavos(OrderStatus.COMPLETED) / 100.0;
+            } else {
+                // Filter orders for today and yesterday
+                List<RecentOrder> todaysOrders = getOrdersOn(today);
+                pendingCount = countOrdersByStatusForOrders(todaysOrders, OrderStatus.PENDING);
+                inProgressCount = countOrdersByStatusForOrders(todaysOrders, OrderStatus.IN_PROGRESS);
+                completedCount = countOrdersByStatusForOrders(todaysOrders, OrderStatus.COMPLETED);
+                cancelledCount = countOrdersByStatusForOrders(todaysOrders, OrderStatus.CANCELLED);
+                totalCount = todaysOrders.size();
+                todaysGrossSales = calculateGrossSalesForOrders(todaysOrders);
+                yesterdaysGrossSales = calculateGrossSalesForOrders(getOrdersOn(yesterday));
+            }
             
             // Calculate average order value (today's completed orders only)
-            List<RecentOrder> todaysCompletedOrders = todaysOrders.stream()
-                .filter(order -> "Completed".equalsIgnoreCase(order.getOrderStatus()))
-                .collect(Collectors.toList());
-            double avgOrderValue = todaysCompletedOrders.size() > 0 ? 
-                todaysGrossSales / todaysCompletedOrders.size() : 0.0;
+            double avgOrderValue = completedCount > 0 ? todaysGrossSales / completedCount : 0.0;
             
             // Calculate completion rate
             double completionRate = totalCount > 0 ? (double) completedCount / totalCount * 100 : 0.0;
@@ -401,20 +268,20 @@ public class OverviewController {
      */
     private double calculateGrossSalesForOrders(List<RecentOrder> orders) {
                 return orders.stream()
-                .filter(order -> "Completed".equalsIgnoreCase(order.getOrderStatus()))
-            .mapToDouble(order -> {
-                try {
-                    String amount = order.getTotalAmount()
-                        .replace("₱", "")
-                        .replace(",", "")
-                        .trim();
-                    return Double.parseDouble(amount);
-                } catch (NumberFormatException e) {
-                    logger.warning("⚠️ Invalid amount format: " + order.getTotalAmount());
-                    return 0.0;
-                }
-            })
-            .sum();
+                .filter(order -> order.getOrder().orderStatus() == OrderStatus.COMPLETED)
+            .mapToLong(RecentOrder::getAmountCentavos)
+            .sum() / 100.0;
+    }
+
+    /**
+     * Get the orders placed on one day
+     * @param date The day
+     * @return The matching orders from allOrders
+     */
+    private List<RecentOrder> getOrdersOn(LocalDate date) {
+        return allOrders.stream()
+            .filter(order -> order.getOrder().orderDate().equals(date))
+            .collect(Collectors.toList());
     }
 
     /**
@@ -423,9 +290,9 @@ public class OverviewController {
      * @param status Status to count (e.g., "Completed", "Pending", "Cancelled")
      * @return Number of orders with the specified status
      */
-    private int countOrdersByStatusForOrders(List<RecentOrder> orders, String status) {
+    private int countOrdersByStatusForOrders(List<RecentOrder> orders, OrderStatus status) {
                 return (int) orders.stream()
-                .filter(order -> status.equalsIgnoreCase(order.getOrderStatus()))
+                .filter(order -> order.getOrder().orderStatus() == status)
             .count();
     }
 
@@ -442,7 +309,12 @@ public class OverviewController {
      * @param status Status to count (e.g., "Completed", "Pending", "Cancelled")
      * @return Number of orders with the specified status
      */
-    private int countOrdersByStatus(String status) {
+    private int countOrdersByStatus(OrderStatus status) {
+        // The bitmap index answers for the loaded snapshot without a scan
+        OrderBitmapIndex bitmaps = orderRepository.getBitmapIndex();
+        if (bitmaps.getOrders() == allOrders) {
+            return bitmaps.countWithStatus(status, null);
+        }
         return countOrdersByStatusForOrders(allOrders, status);
     }
 
@@ -487,17 +359,10 @@ public class OverviewController {
                 
                 // Group orders by date and calculate daily sales (real-time data)
                 Map<LocalDate, Double> dailySales = allOrders.stream()
-                .filter(order -> "Completed".equalsIgnoreCase(order.getOrderStatus()))
+                .filter(order -> order.getOrder().orderStatus() == OrderStatus.COMPLETED)
                     .collect(Collectors.groupingBy(
-                        order -> parseOrderDate(order.getOrderDate()),
-                        Collectors.summingDouble(order -> {
-                            try {
-                                return Double.parseDouble(order.getTotalAmount()
-                                    .replace("₱", "").replace(",", "").trim());
-                            } catch (NumberFormatException e) {
-                                return 0.0;
-                            }
-                        })
+                        order -> order.getOrder().orderDate(),
+                        Collectors.summingDouble(order -> order.getOrder().amount())
                     ));
                 
                 // Add data points for the last 7 days (including today)
@@ -608,22 +473,29 @@ public class OverviewController {
                 LocalDate today = LocalDate.now();
                 
                 // Count flavor occurrences from TODAY's completed orders only
-                Map<String, Integer> flavorCounts = new HashMap<>();
+                ProductCatalog catalog = ProductCatalog.getInstance();
                 
                 List<RecentOrder> todaysCompletedOrders = allOrders.stream()
                     .filter(order -> {
                         // Filter for today's orders only
-                        LocalDate orderDate = parseOrderDate(order.getOrderDate());
-                        return orderDate != null && orderDate.equals(today);
+                        return order.getOrder().orderDate().equals(today);
                     })
-                    .filter(order -> "Completed".equalsIgnoreCase(order.getOrderStatus()))
+                    .filter(order -> order.getOrder().orderStatus() == OrderStatus.COMPLETED)
                     .collect(Collectors.toList());
                 
-                todaysCompletedOrders.forEach(order -> {
-                        String items = order.getItemsOrdered();
-                        // Parse items and extract flavors
-                        extractFlavorsFromItems(items, flavorCounts);
-                    });
+                // Line items are already parsed, so this is a walk over product IDs
+                int[] quantities = new int[catalog.size()];
+                for (RecentOrder order : todaysCompletedOrders) {
+                    for (LineItem item : order.getLineItems()) {
+                        quantities[item.productId()] += item.quantity();
+                    }
+                }
+                Map<String, Integer> flavorCounts = new HashMap<>();
+                for (int productId = 0; productId < quantities.length; productId++) {
+                    if (quantities[productId] > 0) {
+                        flavorCounts.put(catalog.nameOf(productId), quantities[productId]);
+                    }
+                }
                 
                 // Create pie chart data
                 ObservableList<PieChart.Data> pieData = FXCollections.observableArrayList();
@@ -657,100 +529,6 @@ public class OverviewController {
         });
     }
 
-    /**
-     * Extract flavor names from items ordered string and count occurrences
-     * @param items Items ordered string (e.g., "Oreo Overload x2; Chocolate x1")
-     * @param flavorCounts Map to store flavor counts
-     */
-    private void extractFlavorsFromItems(String items, Map<String, Integer> flavorCounts) {
-        if (items == null || items.trim().isEmpty()) return;
-        
-        // Split by semicolon and process each item
-        String[] itemArray = items.split(";");
-        for (String item : itemArray) {
-            item = item.trim();
-            if (item.isEmpty()) continue;
-            
-            // Extract flavor name (everything before " x" or just the item name)
-            String flavor;
-            if (item.contains(" x")) {
-                flavor = item.substring(0, item.lastIndexOf(" x")).trim();
-            } else {
-                flavor = item.trim();
-            }
-            
-            // Extract quantity
-            int quantity = 1;
-            if (item.contains(" x")) {
-                try {
-                    String quantityStr = item.substring(item.lastIndexOf(" x") + 2).trim();
-                    // Remove any non-numeric characters except the number
-                    quantityStr = quantityStr.replaceAll("[^0-9]", "");
-                    if (!quantityStr.isEmpty()) {
-                        quantity = Integer.parseInt(quantityStr);
-                    }
-                } catch (NumberFormatException e) {
-                    quantity = 1;
-                }
-            }
-            
-            flavorCounts.put(flavor, flavorCounts.getOrDefault(flavor, 0) + quantity);
-        }
-    }
-
-    /**
-     * Parse order date from various formats including "Jan 26, 2025 3:45 PM" and new MM/DD/YYYY format
-     * @param dateTimeStr The date string to parse
-     * @return LocalDate if parsing successful, current date as fallback
-     */
-    private LocalDate parseOrderDate(String dateTimeStr) {
-        if (dateTimeStr == null || dateTimeStr.trim().isEmpty()) return LocalDate.now();
-        
-        try {
-            String cleanDateStr = dateTimeStr.trim();
-            
-            // Handle MM/DD/YYYY H:MM AM/PM format (new standard)
-            if (cleanDateStr.matches("\\d{2}/\\d{2}/\\d{4} \\d{1,2}:\\d{2} [AP]M")) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy h:mm a", Locale.ENGLISH);
-                return LocalDateTime.parse(cleanDateStr, formatter).toLocalDate();
-            }
-            
-            // Handle different legacy date formats for backward compatibility
-            if (cleanDateStr.contains("-")) {
-                // Format: 2025-01-26 or 2025-01-26 15:45:00
-                return LocalDate.parse(cleanDateStr.substring(0, 10));
-            } else if (cleanDateStr.contains(",")) {
-                // Format: "Jan 26, 2025 3:45 PM" or "Jan 26, 2025"
-                DateTimeFormatter[] formatters = {
-                    DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a", Locale.ENGLISH),  // "Jan 26, 2025 3:45 PM"
-                    DateTimeFormatter.ofPattern("MMM dd, yyyy h:mm a", Locale.ENGLISH), // "Jan 26, 2025 3:45 PM"
-                    DateTimeFormatter.ofPattern("MMM d, yyyy H:mm a", Locale.ENGLISH),  // "Jan 26, 2025 15:45 PM"
-                    DateTimeFormatter.ofPattern("MMM dd, yyyy H:mm a", Locale.ENGLISH), // "Jan 26, 2025 15:45 PM"
-                    DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH),         // "Jan 26, 2025"
-                    DateTimeFormatter.ofPattern("MMM dd, yyyy", Locale.ENGLISH)         // "Jan 26, 2025"
-                };
-                
-                for (DateTimeFormatter formatter : formatters) {
-                    try {
-                        if (formatter.toString().contains("h:mm") || formatter.toString().contains("H:mm")) {
-                            return LocalDateTime.parse(cleanDateStr, formatter).toLocalDate();
-                        } else {
-                            return LocalDate.parse(cleanDateStr, formatter);
-                        }
-                    } catch (Exception ignored) {
-                        // Try next formatter
-                    }
-                }
-            }
-            
-            logger.warning("⚠️ Could not parse date format: " + dateTimeStr);
-        } catch (Exception e) {
-            logger.warning("⚠️ Error parsing date: " + dateTimeStr + " - " + e.getMessage());
-        }
-        
-        return LocalDate.now(); // Fallback to current date
-    }
-
     /**
      * Update recent orders table with the latest data
      * Shows the 10 most recent orders in the table
@@ -1074,37 +852,38 @@ public class OverviewController {
     }
 
     /**
-     * Start auto-refresh timer for real-time updates
-     * Refreshes data every 15 seconds to keep information current
+     * Start real-time updates
+     * Subscribes to order file changes; on each change only the order journal lines appended since
+     * the last check are read, and KPIs, charts and the table are rebuilt only when the order set
+     * actually changed. Nothing runs while the files are untouched.
      */
     private void startAutoRefresh() {
-        logger.info("⏰ Starting real-time auto-refresh timer...");
+        logger.info("⏰ Starting real-time auto-refresh...");
         
-        scheduler = Executors.newScheduledThreadPool(1);
-        scheduler.scheduleAtFixedRate(() -> {
+        FileChangeNotifier.getInstance().subscribe("overview", changed -> {
             try {
-                logger.info("🔄 Auto-refreshing overview data for real-time updates...");
-                loadAndProcessOrderData();
-                logger.info("✅ Real-time refresh completed successfully");
+                orderRepository.refresh();
+                if (orderRepository.getVersion() != renderedVersion) {
+                    logger.info("🔄 Orders changed, refreshing overview...");
+                    Platform.runLater(this::loadAndProcessOrderData);
+                }
             } catch (Exception e) {
                 logger.log(Level.WARNING, "⚠️ Error during auto-refresh", e);
             }
-        }, 15, 15, TimeUnit.SECONDS);
+        }, FileChangeNotifier.ORDERS_FILE, FileChangeNotifier.ORDERS_JOURNAL_FILE);
         
-        logger.info("✅ Real-time auto-refresh started (15-second intervals for responsive updates)");
+        logger.info("✅ Real-time auto-refresh started (file change notifications)");
     }
 
     /**
-     * Cleanup method to stop the auto-refresh timer
+     * Cleanup method to stop real-time updates
      * Should be called when the controller is being destroyed
      */
     public void cleanup() {
         logger.info("🧹 Cleaning up OverviewController...");
         
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
-            logger.info("✅ Auto-refresh timer stopped");
-        }
+        FileChangeNotifier.getInstance().unsubscribe("overview");
+        logger.info("✅ Auto-refresh stopped");
     }
     
     /**
@@ -1130,8 +909,8 @@ public class OverviewController {
             float separatorX = (pageWidth - separatorWidth) / 2;
             
             // Calculate actual height needed based on content
-            String[] items = order.getItemsOrdered().split(";");
-            int itemCount = items.length;
+            List<LineItem> items = order.getLineItems();
+            int itemCount = items.size();
             float lineHeight = 12f; // Line height for compact receipt
             
             // Calculate total lines needed - updated calculation
@@ -1271,34 +1050,30 @@ public class OverviewController {
             yPosition -= 20f; // 20px spacing after header
             
             // Items list
-            for (String item : items) {
-                if (!item.trim().isEmpty()) {
-                    Object[] itemData = parseItemWithPrice(item.trim());
-                    String qty = itemData[0].toString();
-                    String name = itemData[1].toString();
-                    double unitPrice = (Double) itemData[2];
-                    double totalPrice = (Double) itemData[3];
-                    
-                    // Format item line: "2x Beef Waffle"
-                    String itemLine = qty + "x " + name;
-                    
-                    contentStream.endText();
-                    contentStream.beginText();
-                    contentStream.setFont(courierRegular, 10f);
-                    contentStream.newLineAtOffset(leftMargin, yPosition);
-                    contentStream.showText(itemLine);
-                    
-                    // Amount on the right
-                    String amountStr = String.format("PHP %.2f", totalPrice);
-                    float amountWidth = courierRegular.getStringWidth(amountStr) / 1000 * 10f;
-                    contentStream.endText();
-                    contentStream.beginText();
-                    contentStream.setFont(courierRegular, 10f);
-                    contentStream.newLineAtOffset(pageWidth - rightMargin - amountWidth, yPosition);
-                    contentStream.showText(amountStr);
-                    
-                    yPosition -= 12f; // 12px spacing between items
-                }
+            for (LineItem item : items) {
+                String qty = String.valueOf(item.quantity());
+                String name = item.productName();
+                double totalPrice = item.total();
+                
+                // Format item line: "2x Beef Waffle"
+                String itemLine = qty + "x " + name;
+                
+                contentStream.endText();
+                contentStream.beginText();
+                contentStream.setFont(courierRegular, 10f);
+                contentStream.newLineAtOffset(leftMargin, yPosition);
+                contentStream.showText(itemLine);
+                
+                // Amount on the right
+                String amountStr = String.format("PHP %.2f", totalPrice);
+                float amountWidth = courierRegular.getStringWidth(amountStr) / 1000 * 10f;
+                contentStream.endText();
+                contentStream.beginText();
+                contentStream.setFont(courierRegular, 10f);
+                contentStream.newLineAtOffset(pageWidth - rightMargin - amountWidth, yPosition);
+                contentStream.showText(amountStr);
+                
+                yPosition -= 12f; // 12px spacing between items
             }
             
             // First separator after table
@@ -1495,8 +1270,8 @@ public class OverviewController {
             float separatorX = (pageWidth - separatorWidth) / 2;
             
             // Calculate actual height needed based on content
-            String[] items = order.getItemsOrdered().split(";");
-            int itemCount = items.length;
+            List<LineItem> items = order.getLineItems();
+            int itemCount = items.size();
             float lineHeight = 12f; // Line height for compact receipt
             
             // Calculate total lines needed - updated calculation without the removed content
@@ -1675,13 +1450,10 @@ public class OverviewController {
             yPosition -= 10f; // 10px spacing after separator
             
             // Parse and display items in table format with correct pricing
-            for (String item : items) {
-                // Use helper method to get correct pricing
-                Object[] itemDetails = parseItemWithPrice(item);
-                String qty = (String) itemDetails[0];
-                String name = (String) itemDetails[1];
-                double unitPrice = (Double) itemDetails[2];
-                double totalPrice = (Double) itemDetails[3];
+            for (LineItem item : items) {
+                String qty = String.valueOf(item.quantity());
+                String name = item.productName();
+                double totalPrice = item.total();
                 
                 // Truncate name if too long (max 18 characters for narrow receipt)
                 if (name.length() > 18) {
@@ -1913,83 +1685,13 @@ public class OverviewController {
         }
     }
 
-    /**
-     * Parse item string to extract quantity, name, unit price, and total price
-     * @param item The item string to parse
-     * @return Object array with [quantity, name, unitPrice, totalPrice]
-     */
-    private Object[] parseItemWithPrice(String item) {
-        try {
-            // Parse format: "4x Tropiham @ ₱55.00 each"
-            if (item.contains("x") && item.contains("@") && item.contains("each")) {
-                String[] parts = item.split("x");
-                String qty = parts[0].trim();
-                
-                String remaining = parts[1].trim();
-                String[] namePriceParts = remaining.split("@");
-                String name = namePriceParts[0].trim();
-                
-                String priceSection = namePriceParts[1].trim();
-                // Extract unit price from "₱55.00 each"
-                String unitPriceStr = priceSection.replace("₱", "").replace("each", "").trim();
-                double unitPrice = Double.parseDouble(unitPriceStr);
-                double totalPrice = Integer.parseInt(qty) * unitPrice;
-                
-                return new Object[]{qty, name, unitPrice, totalPrice};
-            }
-            
-            // Fallback parsing for simpler format
-            if (item.contains("x")) {
-                String[] parts = item.split("x");
-                String qty = parts[0].trim();
-                String name = parts[1].trim();
-                
-                // Try to find product price from product data
-                double unitPrice = findProductPrice(name);
-                double totalPrice = Integer.parseInt(qty) * unitPrice;
-                
-                return new Object[]{qty, name, unitPrice, totalPrice};
-            }
-            
-            // Default fallback
-            return new Object[]{"1", item, 45.0, 45.0};
-            
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error parsing item: " + item, e);
-            return new Object[]{"1", item, 45.0, 45.0};
-        }
-    }
-    
-    /**
-     * Find product price by name
-     * @param productName The name of the product
-     * @return The price of the product, or 45.0 as default
-     */
-    private double findProductPrice(String productName) {
-        // Default prices for common products
-        if (productName.toLowerCase().contains("tropiham")) return 55.0;
-        if (productName.toLowerCase().contains("chocobam")) return 50.0;
-        if (productName.toLowerCase().contains("classic")) return 45.0;
-        if (productName.toLowerCase().contains("strawberry")) return 50.0;
-        if (productName.toLowerCase().contains("blueberry")) return 50.0;
-        
-        // Default price
-        return 45.0;
-    }
-    
     /**
      * Calculate total amount for an order
      * @param order The order to calculate total for
      * @return The total amount
      */
     private double calculateOrderTotal(RecentOrder order) {
-        try {
-            String totalAmountStr = order.getTotalAmount().replace("₱", "").replace(",", "").trim();
-            return Double.parseDouble(totalAmountStr);
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "Error parsing total amount: " + order.getTotalAmount(), e);
-            return 0.0;
-        }
+        return order.getOrder().amount();
     }
     
     /**
@@ -34,35 +34,6 @@ public class ProductManagementController {
     private static final Logger logger = Logger.getLogger(ProductManagementController.class.getName());
     private static final int ROWS_PER_PAGE = 5;
     
-    /**
-     * Callback to notify other controllers when product data changes
-     * This allows real-time updates across the application
-     */
-    private static List<Runnable> dataChangeCallbacks = new ArrayList<>();
-    
-    /**
-     * Register a callback to be notified when product data changes
-     * @param callback The callback to execute when data changes
-     */
-    public static void registerDataChangeCallback(Runnable callback) {
-        dataChangeCallbacks.add(callback);
-        logger.info("📡 Data change callback registered");
-    }
-    
-    /**
-     * Notify all registered callbacks that product data has changed
-     */
-    private static void notifyDataChangeCallbacks() {
-        logger.info("📢 Notifying " + dataChangeCallbacks.size() + " registered callbacks of data changes");
-        for (Runnable callback : dataChangeCallbacks) {
-            try {
-                Platform.runLater(callback);
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "⚠️ Error executing data change callback", e);
-            }
-        }
-    }
-    
     // Callback for real-time updates
     private Runnable onDataChangedCallback;
     
@@ -693,8 +664,7 @@ public class ProductManagementController {
             Files.write(Paths.get(CATEGORIES_FILE), lines);
             logger.info("💾 Categories saved successfully: " + lines.size() + " entries");
 
-            // Notify listeners that categories have changed
-            notifyDataChangeCallbacks();
+            // Other views are notified by FileChangeNotifier when categories.txt changes
             triggerDataChangedCallback();
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Could not save categories", e);
@@ -737,8 +707,7 @@ public class ProductManagementController {
             // Re-extract categories from updated products
             extractCategoriesFromProducts();
             
-            // Notify all registered controllers of data changes
-            notifyDataChangeCallbacks();
+            // Other views are notified by FileChangeNotifier when products.txt changes
             // Keep legacy callback for compatibility
             triggerDataChangedCallback();
         } catch (IOException e) {
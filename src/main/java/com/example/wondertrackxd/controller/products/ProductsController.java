@@ -1,7 +1,9 @@
 package com.example.wondertrackxd.controller.products;
 
+import com.example.wondertrackxd.controller.data.FileChangeNotifier;
 import com.example.wondertrackxd.controller.model.WaffleCategory;
 import com.example.wondertrackxd.controller.model.WaffleFlavor;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -59,11 +61,11 @@ public class ProductsController {
             setupEventHandlers();
             refreshProductsView();
             
-            // Register for real-time updates from ProductManagementController
-            ProductManagementController.registerDataChangeCallback(() -> {
+            // Refresh whenever products.txt or categories.txt is written
+            FileChangeNotifier.getInstance().subscribe("products-view", changed -> Platform.runLater(() -> {
                 logger.info("📡 Received data change notification, refreshing products view...");
                 refreshProductsView();
-            });
+            }), FileChangeNotifier.PRODUCTS_FILE, FileChangeNotifier.CATEGORIES_FILE);
             
             logger.info("✅ Products Controller initialized successfully");
         } catch (Exception e) {
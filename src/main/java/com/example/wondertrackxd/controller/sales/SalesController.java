@@ -1,12 +1,21 @@
 package com.example.wondertrackxd.controller.sales;
 
 import com.example.wondertrackxd.controller.analytics.DataService;
+import com.example.wondertrackxd.controller.data.DateTimeParser;
+import com.example.wondertrackxd.controller.data.EnumBitmapIndex;
+import com.example.wondertrackxd.controller.data.FileChangeNotifier;
+import com.example.wondertrackxd.controller.data.SalesDateIndex;
+import com.example.wondertrackxd.controller.data.TopK;
+import com.example.wondertrackxd.controller.model.LineItem;
+import com.example.wondertrackxd.controller.model.PaymentMethod;
 import com.example.wondertrackxd.controller.model.SalesRecord;
 import com.example.wondertrackxd.controller.header.HeaderController;
 
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -48,8 +57,8 @@ import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -89,14 +98,30 @@ public class SalesController implements Initializable {
     @FXML private Label pageLabel;
     @FXML private Label resultsInfoLabel;
     @FXML private Button clearFiltersButton;
+    @FXML private CheckBox showAllToggle;
 
     // Data Management
     private List<SalesRecord> allSales = new ArrayList<>();
-    private ObservableList<SalesRecord> filteredSales = FXCollections.observableArrayList();
+    private List<SalesRecord> filteredSales = List.of(); // Latest filter result (read-only)
     private DataService dataService = DataService.getInstance();
     private int currentPage = 1;
     private final int itemsPerPage = 15;
 
+    // "Show all" mode: the table is bound to one sorted, filtered view over every sale instead of a page copy
+    private boolean showAll = false;
+    private final ObservableList<SalesRecord> salesRows = FXCollections.observableArrayList();
+    private final FilteredList<SalesRecord> filteredRows = new FilteredList<>(salesRows);
+    private final SortedList<SalesRecord> sortedRows = new SortedList<>(filteredRows);
+    private List<SalesRecord> salesRowsSource; // Sales list currently held by salesRows
+
+    // Sales sorted by date for the date pickers; rebuilt when the sales list changes
+    private SalesDateIndex salesDateIndex;
+
+    // Payment-method bitmaps over allSales positions; rebuilt when the sales list changes
+    private EnumBitmapIndex<PaymentMethod> salesPaymentIndex;
+    private List<SalesRecord> salesPaymentIndexSource;
+    private int salesPaymentIndexSize;
+
     // Currency formatter
     private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.forLanguageTag("en-PH"));
 
@@ -110,6 +135,8 @@ public class SalesController implements Initializable {
         try {
             // Register with HeaderController for real-time updates
             HeaderController.setSalesController(this);
+            FileChangeNotifier.getInstance().subscribe("sales-view",
+                changed -> Platform.runLater(this::refreshSalesData), FileChangeNotifier.SALES_FILE);
             
             // Initialize data service and load sales data
             loadSalesData();
@@ -196,7 +223,7 @@ public class SalesController implements Initializable {
                 logger.info("📊 Table found in FXML, setting up columns...");
                 
                 // Initialize the filtered sales list
-                filteredSales = FXCollections.observableArrayList();
+                filteredSales = List.of();
                 salesTable.setItems(FXCollections.observableArrayList());
                 
                 // Set table selection mode to single selection
@@ -272,13 +299,10 @@ public class SalesController implements Initializable {
                     });
                 }
                 
-                // Update filtered sales list with all sales
-                filteredSales.addAll(allSales);
-                
                 // Initial update of table display
                 updateTableDisplay();
                 
-                logger.info("✅ Table setup completed with " + filteredSales.size() + " records");
+                logger.info("✅ Table setup completed with " + allSales.size() + " records");
             } else {
                 logger.warning("⚠️ Sales table not found in FXML");
             }
@@ -323,7 +347,7 @@ public class SalesController implements Initializable {
             prevPageBtn.setOnAction(e -> {
                 logger.info("⬅️ Previous button clicked - current page: " + currentPage);
                 try {
-                    if (currentPage > 1) {
+                    if (!showAll && currentPage > 1) {
                         currentPage--;
                         logger.info("✅ Moving to previous page: " + currentPage);
                         updateTableDisplay();
@@ -346,7 +370,7 @@ public class SalesController implements Initializable {
                 logger.info("➡️ Next button clicked - current page: " + currentPage);
                 try {
                     int totalPages = (int) Math.ceil((double) filteredSales.size() / itemsPerPage);
-                    if (currentPage < totalPages) {
+                    if (!showAll && currentPage < totalPages) {
                         currentPage++;
                         logger.info("✅ Moving to next page: " + currentPage);
                         updateTableDisplay();
@@ -380,8 +404,8 @@ public class SalesController implements Initializable {
             
             // Calculate metrics
             double todaysTotalSales = todaysSales.stream()
-                .mapToDouble(this::parseSaleAmount)
-                .sum();
+                .mapToLong(SalesRecord::getSaleAmountCentavos)
+                .sum() / 100.0;
             
             int todaysTransactionCount = todaysSales.size();
             double averageTicket = todaysTransactionCount > 0 ? todaysTotalSales / todaysTransactionCount : 0.0;
@@ -427,94 +451,39 @@ public class SalesController implements Initializable {
         
         Platform.runLater(() -> {
             try {
-                // Create a new filtered list from all sales
-                List<SalesRecord> tempFiltered = new ArrayList<>(allSales);
-                
-                // Apply filters if set
-                if (paymentMethodFilter != null && paymentMethodFilter.getValue() != null && 
-                    !paymentMethodFilter.getValue().equals("All Methods")) {
-                    String method = paymentMethodFilter.getValue();
-                    tempFiltered = tempFiltered.stream()
-                        .filter(sale -> sale.getPaymentMethod().equals(method))
-                        .collect(Collectors.toList());
-                }
-                
-                // Apply date range filter
-                if (fromDatePicker != null && fromDatePicker.getValue() != null) {
-                    LocalDate fromDate = fromDatePicker.getValue();
-                    tempFiltered = tempFiltered.stream()
-                        .filter(sale -> {
-                            LocalDate saleDate = parseSaleDate(sale.getSaleDateTime());
-                            return saleDate != null && !saleDate.isBefore(fromDate);
-                        })
-                        .collect(Collectors.toList());
-                }
+                Comparator<SalesRecord> comparator = buildSalesComparator();
                 
-                if (toDatePicker != null && toDatePicker.getValue() != null) {
-                    LocalDate toDate = toDatePicker.getValue();
-                    tempFiltered = tempFiltered.stream()
-                        .filter(sale -> {
-                            LocalDate saleDate = parseSaleDate(sale.getSaleDateTime());
-                            return saleDate != null && !saleDate.isAfter(toDate);
-                        })
-                        .collect(Collectors.toList());
+                if (showAll) {
+                    showAllSales(buildSalesFilter(true), comparator);
+                    return;
                 }
                 
-                // Apply search filter
-                if (searchField != null && searchField.getText() != null && !searchField.getText().trim().isEmpty()) {
-                    String searchTerm = searchField.getText().toLowerCase().trim();
-                    tempFiltered = tempFiltered.stream()
-                        .filter(sale -> 
-                            sale.getSaleId().toLowerCase().contains(searchTerm) ||
-                            sale.getOrderId().toLowerCase().contains(searchTerm) ||
-                            sale.getCustomerName().toLowerCase().contains(searchTerm) ||
-                            sale.getContactNumber().contains(searchTerm)
-                        )
-                        .collect(Collectors.toList());
+                // A date range narrows the candidates to one slice of the date index
+                LocalDate fromDate = fromDatePicker != null ? fromDatePicker.getValue() : null;
+                LocalDate toDate = toDatePicker != null ? toDatePicker.getValue() : null;
+                // Otherwise a payment method narrows them to the rows of its bitmap
+                String method = paymentMethodFilter != null ? paymentMethodFilter.getValue() : null;
+                PaymentMethod paymentMethod = method == null || method.equals("All Methods") ? PaymentMethod.OTHER
+                    : PaymentMethod.fromLabel(method);
+                List<SalesRecord> candidates;
+                if (fromDate != null || toDate != null) {
+                    candidates = getSalesDateIndex().between(fromDate, toDate);
+                } else if (paymentMethod != PaymentMethod.OTHER) {
+                    BitSet rows = getSalesPaymentIndex().rows(EnumSet.of(paymentMethod));
+                    candidates = new ArrayList<>(rows.cardinality());
+                    for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                        candidates.add(allSales.get(row));
+                    }
+                } else {
+                    candidates = allSales;
                 }
                 
-                // Apply sorting
-                if (sortOrderCombo != null && sortOrderCombo.getValue() != null) {
-                    String sortOrder = sortOrderCombo.getValue();
-                    switch (sortOrder) {
-                        case "Newest First":
-                            tempFiltered.sort((a, b) -> {
-                                // Parse dates for proper comparison
-                                LocalDateTime dateA = parseSaleDateTime(a.getSaleDateTime());
-                                LocalDateTime dateB = parseSaleDateTime(b.getSaleDateTime());
-                                if (dateA != null && dateB != null) {
-                                    return dateB.compareTo(dateA); // Newest first
-                                }
-                                // Fallback to string comparison if parsing fails
-                                return b.getSaleDateTime().compareTo(a.getSaleDateTime());
-                            });
-                            break;
-                        case "Oldest First":
-                            tempFiltered.sort((a, b) -> {
-                                // Parse dates for proper comparison
-                                LocalDateTime dateA = parseSaleDateTime(a.getSaleDateTime());
-                                LocalDateTime dateB = parseSaleDateTime(b.getSaleDateTime());
-                                if (dateA != null && dateB != null) {
-                                    return dateA.compareTo(dateB); // Oldest first
-                                }
-                                // Fallback to string comparison if parsing fails
-                                return a.getSaleDateTime().compareTo(b.getSaleDateTime());
-                            });
-                            break;
-                        case "Amount High to Low":
-                            tempFiltered.sort((a, b) -> {
-                                double amountA = parseSaleAmount(a);
-                                double amountB = parseSaleAmount(b);
-                                return Double.compare(amountB, amountA);
-                            });
-                            break;
-                        case "Amount Low to High":
-                            tempFiltered.sort((a, b) -> {
-                                double amountA = parseSaleAmount(a);
-                                double amountB = parseSaleAmount(b);
-                                return Double.compare(amountA, amountB);
-                            });
-                            break;
+                // Create a new filtered list from the candidate sales
+                Predicate<SalesRecord> filter = buildSalesFilter(false);
+                List<SalesRecord> tempFiltered = new ArrayList<>();
+                for (SalesRecord sale : candidates) {
+                    if (filter.test(sale)) {
+                        tempFiltered.add(sale);
                     }
                 }
                 
@@ -530,12 +499,26 @@ public class SalesController implements Initializable {
                 int startIndex = (currentPage - 1) * itemsPerPage;
                 int endIndex = Math.min(startIndex + itemsPerPage, totalItems);
                 
+                // Apply sorting; amount sorts only select the rows up to this page while it is near the top
+                List<SalesRecord> sorted = tempFiltered;
+                if (comparator != null) {
+                    String sortOrder = sortOrderCombo.getValue();
+                    boolean amountSort = "Amount High to Low".equals(sortOrder) || "Amount Low to High".equals(sortOrder);
+                    if (amountSort && TopK.isWorthwhile(totalItems, endIndex)) {
+                        sorted = TopK.select(tempFiltered, endIndex, comparator);
+                    } else {
+                        tempFiltered.sort(comparator);
+                    }
+                }
+                
                 // Get items for current page
-                List<SalesRecord> pageItems = tempFiltered.subList(startIndex, endIndex);
+                List<SalesRecord> pageItems = sorted.subList(startIndex, endIndex);
                 
-                // Update table items
-                salesTable.getItems().clear();
-                salesTable.getItems().addAll(pageItems);
+                // Update table items (replacing the "Show all" view if it was bound)
+                if (salesTable.getItems() == sortedRows) {
+                    salesTable.setItems(FXCollections.observableArrayList());
+                }
+                salesTable.getItems().setAll(pageItems);
                 
                 // Update pagination controls
                 if (pageLabel != null) {
@@ -564,9 +547,8 @@ public class SalesController implements Initializable {
                     logger.warning("⚠️ Next button is null during table update");
                 }
                 
-                // Update filtered sales list for other operations
-                filteredSales.clear();
-                filteredSales.addAll(tempFiltered);
+                // Update filtered sales list for other operations (only fully ordered without a partial sort)
+                filteredSales = Collections.unmodifiableList(tempFiltered);
                 
             } catch (Exception e) {
                 logger.log(Level.SEVERE, "❌ Error updating table display", e);
@@ -574,6 +556,133 @@ public class SalesController implements Initializable {
         });
     }
 
+    /**
+     * Bind the table to the sorted, filtered view over every sale ("Show all" mode)
+     * The rows are only replaced when the sales list was reloaded; otherwise a filter or sort change
+     * just swaps the predicate or comparator of the view, and the table only creates cells for the
+     * rows that are visible.
+     * @param filter Current filter
+     * @param comparator Current sort order, or null for file order
+     */
+    private void showAllSales(Predicate<SalesRecord> filter, Comparator<SalesRecord> comparator) {
+        if (salesRowsSource != allSales) {
+            salesRows.setAll(allSales);
+            salesRowsSource = allSales;
+        }
+        filteredRows.setPredicate(filter);
+        sortedRows.setComparator(comparator);
+        if (salesTable.getItems() != sortedRows) {
+            salesTable.setItems(sortedRows);
+        }
+        filteredSales = sortedRows;
+        currentPage = 1;
+        
+        if (pageLabel != null) {
+            pageLabel.setText("All sales");
+        }
+        if (resultsInfoLabel != null) {
+            resultsInfoLabel.setText(String.format("Showing all %d sales", sortedRows.size()));
+        }
+        if (prevPageBtn != null) prevPageBtn.setDisable(true);
+        if (nextPageBtn != null) nextPageBtn.setDisable(true);
+    }
+
+    /**
+     * Get the date index over allSales, rebuilding it if the sales list changed
+     * @return Sales date index
+     */
+    private SalesDateIndex getSalesDateIndex() {
+        if (salesDateIndex == null || !salesDateIndex.isCurrentFor(allSales)) {
+            salesDateIndex = new SalesDateIndex(allSales);
+        }
+        return salesDateIndex;
+    }
+
+    /**
+     * Get the payment-method bitmaps over allSales, rebuilding them if the sales list changed
+     * @return Payment-method bitmap index; row numbers are positions in allSales
+     */
+    private EnumBitmapIndex<PaymentMethod> getSalesPaymentIndex() {
+        if (salesPaymentIndex == null || salesPaymentIndexSource != allSales || salesPaymentIndexSize != allSales.size()) {
+            salesPaymentIndex = new EnumBitmapIndex<>(PaymentMethod.class);
+            for (int row = 0; row < allSales.size(); row++) {
+                salesPaymentIndex.set(row, PaymentMethod.fromLabel(allSales.get(row).getPaymentMethod()));
+            }
+            salesPaymentIndexSource = allSales;
+            salesPaymentIndexSize = allSales.size();
+        }
+        return salesPaymentIndex;
+    }
+
+    /**
+     * Build the filter for the current payment method, date range and search text
+     * @param checkDates Whether to test the date range (false when the sales come from the date index)
+     * @return Predicate accepting the sales that pass every active filter
+     */
+    private Predicate<SalesRecord> buildSalesFilter(boolean checkDates) {
+        String method = paymentMethodFilter != null ? paymentMethodFilter.getValue() : null;
+        boolean anyMethod = method == null || method.equals("All Methods");
+        LocalDate fromDate = checkDates && fromDatePicker != null ? fromDatePicker.getValue() : null;
+        LocalDate toDate = checkDates && toDatePicker != null ? toDatePicker.getValue() : null;
+        String searchTerm = searchField != null && searchField.getText() != null
+            ? searchField.getText().toLowerCase().trim() : "";
+        
+        return sale -> {
+            if (!anyMethod && !sale.getPaymentMethod().equals(method)) {
+                return false;
+            }
+            
+            // Apply date range filter
+            if (fromDate != null || toDate != null) {
+                LocalDate saleDate = parseSaleDate(sale.getSaleDateTime());
+                if (saleDate == null) return false;
+                if (fromDate != null && saleDate.isBefore(fromDate)) return false;
+                if (toDate != null && saleDate.isAfter(toDate)) return false;
+            }
+            
+            // Apply search filter
+            return searchTerm.isEmpty() ||
+                sale.getSaleId().toLowerCase().contains(searchTerm) ||
+                sale.getOrderId().toLowerCase().contains(searchTerm) ||
+                sale.getCustomerName().toLowerCase().contains(searchTerm) ||
+                sale.getContactNumber().contains(searchTerm);
+        };
+    }
+
+    /**
+     * Build the comparator for the selected sort order
+     * @return Comparator, or null to keep file order
+     */
+    private Comparator<SalesRecord> buildSalesComparator() {
+        if (sortOrderCombo == null || sortOrderCombo.getValue() == null) return null;
+        
+        switch (sortOrderCombo.getValue()) {
+            case "Newest First":
+                return (a, b) -> compareSaleDates(b, a);
+            case "Oldest First":
+                return this::compareSaleDates;
+            case "Amount High to Low":
+                return (a, b) -> Long.compare(b.getSaleAmountCentavos(), a.getSaleAmountCentavos());
+            case "Amount Low to High":
+                return (a, b) -> Long.compare(a.getSaleAmountCentavos(), b.getSaleAmountCentavos());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Compare two sales by date and time, oldest first
+     * Falls back to comparing the raw text if either date cannot be parsed
+     */
+    private int compareSaleDates(SalesRecord a, SalesRecord b) {
+        LocalDateTime dateA = parseSaleDateTime(a.getSaleDateTime());
+        LocalDateTime dateB = parseSaleDateTime(b.getSaleDateTime());
+        if (dateA != null && dateB != null) {
+            return dateA.compareTo(dateB);
+        }
+        return a.getSaleDateTime().compareTo(b.getSaleDateTime());
+    }
+
     // Helper methods
 
     /**
@@ -592,48 +701,15 @@ public class SalesController implements Initializable {
      * Parse sale date from string format
      */
     private LocalDate parseSaleDate(String dateTimeStr) {
-        try {
-            if (dateTimeStr != null && dateTimeStr.contains(",")) {
-                String[] parts = dateTimeStr.split(",");
-                if (parts.length >= 2) {
-                    String datePart = parts[0].trim() + ", " + parts[1].trim().split(" ")[0];
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
-                    return LocalDate.parse(datePart, formatter);
-                }
-            }
-        } catch (DateTimeParseException e) {
-            logger.log(Level.WARNING, "Failed to parse sale date: " + dateTimeStr, e);
-        }
-        return null;
+        LocalDateTime dateTime = parseSaleDateTime(dateTimeStr);
+        return dateTime != null ? dateTime.toLocalDate() : null;
     }
 
     /**
      * Parse sale date-time from string format for sorting
      */
     private LocalDateTime parseSaleDateTime(String dateTimeStr) {
-        try {
-            if (dateTimeStr != null && dateTimeStr.contains(",")) {
-                // Format: "MMM d, yyyy h:mm a" (e.g., "Jul 6, 2025 2:45 PM")
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a");
-                return LocalDateTime.parse(dateTimeStr, formatter);
-            }
-        } catch (DateTimeParseException e) {
-            logger.log(Level.WARNING, "Failed to parse sale date-time: " + dateTimeStr, e);
-        }
-        return null;
-    }
-
-    /**
-     * Parse sale amount from string
-     */
-    private double parseSaleAmount(SalesRecord sale) {
-        try {
-            String amountStr = sale.getSaleAmount().replace("₱", "").replace(",", "").trim();
-            return Double.parseDouble(amountStr);
-        } catch (NumberFormatException e) {
-            logger.log(Level.WARNING, "Failed to parse sale amount: " + sale.getSaleAmount(), e);
-            return 0.0;
-        }
+        return DateTimeParser.parse(dateTimeStr);
     }
 
     /**
@@ -928,10 +1004,9 @@ public class SalesController implements Initializable {
             addText(contentStream, "Items Purchased", boldFont, 14, xStart, yPosition);
             yPosition -= 25;
             
-            // Parse and add items
-            String[] items = sale.getItemsSold().split(";");
-            for (String item : items) {
-                addText(contentStream, "• " + item.trim(), regularFont, 11, xStart, yPosition);
+            // Add items
+            for (LineItem item : sale.getLineItems()) {
+                addText(contentStream, "• " + item.getDisplayString(), regularFont, 11, xStart, yPosition);
                 yPosition -= 20;
             }
             
@@ -945,8 +1020,7 @@ public class SalesController implements Initializable {
             if ("Cash".equals(sale.getPaymentMethod())) {
                 addText(contentStream, "Amount Received: ₱" + sale.getCashReceived(), regularFont, 11, xStart, yPosition);
                 yPosition -= 20;
-                double change = Double.parseDouble(sale.getCashReceived()) - 
-                              Double.parseDouble(sale.getSaleAmount().replace("₱", "").replace(",", ""));
+                double change = Double.parseDouble(sale.getCashReceived()) - sale.getSaleAmountCentavos() / 100.0;
                 addText(contentStream, "Change: ₱" + String.format("%.2f", change), regularFont, 11, xStart, yPosition);
             } else {
                 addText(contentStream, "Reference Number: " + sale.getPaymentReference(), regularFont, 11, xStart, yPosition);
@@ -1030,6 +1104,14 @@ public class SalesController implements Initializable {
             });
         }
         
+        if (showAllToggle != null) {
+            showAllToggle.selectedProperty().addListener((observable, oldValue, newValue) -> {
+                logger.info("📋 Show all sales: " + newValue);
+                showAll = newValue;
+                resetPagination();
+            });
+        }
+        
         if (clearFiltersButton != null) {
             clearFiltersButton.setOnAction(e -> {
                 logger.info("🧹 Clearing all filters");
@@ -1049,6 +1131,7 @@ public class SalesController implements Initializable {
      */
     private void forceRefreshPagination() {
         logger.info("🔄 Force refreshing pagination state");
+        if (showAll) return;
         
         try {
             // Recalculate total pages
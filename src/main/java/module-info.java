@@ -32,6 +32,9 @@ module com.example.wondertrackxd {
     exports com.example.wondertrackxd.controller.sales;
     opens com.example.wondertrackxd.controller.sales to javafx.fxml;
 
+    // Data layer (order journal, file formats, background maintenance)
+    exports com.example.wondertrackxd.controller.data;
+
     // Model package exports and opens for JavaFX property access
     exports com.example.wondertrackxd.controller.model;
     opens com.example.wondertrackxd.controller.model to javafx.base, javafx.fxml;